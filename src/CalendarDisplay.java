@@ -3,23 +3,28 @@ import java.awt.*;
 import java.time.*;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Objects;
 
 /**
  * CalendarDisplay is a JPanel that displays a calendar for a selected month.
  * It listens to event updates from the EventManager and refreshes the calendar accordingly.
+ * With several calendars it shows the merged events of the selected ones.
  */
 public class CalendarDisplay extends JPanel implements EventManager.EventListener {
-    private final EventManager eventManager;            // Reference to the EventManager
+    private final CalendarSet calendars;                // Reference to the calendars shown
     private final JComboBox<YearMonth> monthSelector;   // ComboBox to select the month
     private final JPanel calendarPanel;                 // Panel to display the calendar grid
 
      // Constructor
     public CalendarDisplay(EventManager eventManager) {
-        this.eventManager = eventManager;
+        this(CalendarSet.of(eventManager));
+    }
 
-        // Register this CalendarDisplay as a listener to receive event updates
-        this.eventManager.addListener(this);
+    // Constructs a CalendarDisplay showing the merged events of the selected calendars
+    public CalendarDisplay(CalendarSet calendars) {
+        this.calendars = calendars;
 
         // Set the layout of this panel to BorderLayout
         setLayout(new BorderLayout());
@@ -40,8 +45,14 @@ public class CalendarDisplay extends JPanel implements EventManager.EventListene
         // Set the selected month to the current month
         monthSelector.setSelectedItem(currentMonth);
 
-        // Add an action listener to update the calendar when the selected month changes
-        monthSelector.addActionListener(e -> updateCalendar());
+        // Subscribe to changes of incomplete events in the shown month, delivered on the EDT
+        calendars.subscribe(this, interestIn(currentMonth), SwingUtilities::invokeLater);
+
+        // Add an action listener to follow the selected month and update the calendar when it changes
+        monthSelector.addActionListener(e -> {
+            calendars.setInterest(this, interestIn((YearMonth) monthSelector.getSelectedItem()));
+            updateCalendar();
+        });
 
         // Add the month selector to the top panel
         topPanel.add(monthSelector);
@@ -84,8 +95,8 @@ public class CalendarDisplay extends JPanel implements EventManager.EventListene
         // Fill in blank days before the first of the month
         addEmptyLabels(firstDayOfWeek);
 
-        // Get the list of events from the event manager
-        List<Event> events = eventManager.getEvents();
+        // Get the incomplete events of the month grouped by day, reaching into the archive if the month is there
+        Map<LocalDate, List<Event>> events = getEventsByDate(selectedMonth);
 
         // Add day panels for each day of the month
         for (int day = 1; day <= daysInMonth; day++) {
@@ -123,7 +134,7 @@ public class CalendarDisplay extends JPanel implements EventManager.EventListene
     }
 
     // Function that creates a day panel for the given date, including any events on that day
-    private JPanel createDayPanel(LocalDate date, List<Event> events) {
+    private JPanel createDayPanel(LocalDate date, Map<LocalDate, List<Event>> events) {
         // Create a panel for the day
         JPanel dayPanel = new JPanel();
         dayPanel.setBorder(BorderFactory.createLineBorder(Color.BLACK, 2));
@@ -138,7 +149,7 @@ public class CalendarDisplay extends JPanel implements EventManager.EventListene
         dayPanel.add(dayLabel, BorderLayout.NORTH);
 
         // Get the events on this day that are not completed
-        List<Event> eventsOnThisDay = getEventsOnDate(date, events);
+        List<Event> eventsOnThisDay = events.getOrDefault(date, List.of());
 
         // If there are events on this day, add them to the day panel
         if (!eventsOnThisDay.isEmpty()) {
@@ -170,15 +181,16 @@ public class CalendarDisplay extends JPanel implements EventManager.EventListene
         }
     }
 
-    // Function that retrieves the list of events occurring on the given date that are not completed.
-    private List<Event> getEventsOnDate(LocalDate date, List<Event> events) {
-        List<Event> eventsOnThisDay = new ArrayList<>();
-        for (Event event : events) {
-            if (!event.isComplete() && event.getDateTime().toLocalDate().equals(date)) {
-                eventsOnThisDay.add(event);
+    // Function that retrieves the events occurring in the given month that are not completed, grouped by date.
+    private Map<LocalDate, List<Event>> getEventsByDate(YearMonth month) {
+        Map<LocalDate, List<Event>> eventsByDate = new HashMap<>();
+        LocalDateTime from = month.atDay(1).atStartOfDay();
+        for (Event event : calendars.getEventsBetween(from, from.plusMonths(1))) {
+            if (!event.isComplete()) {
+                eventsByDate.computeIfAbsent(event.getDateTime().toLocalDate(), date -> new ArrayList<>()).add(event);
             }
         }
-        return eventsOnThisDay;
+        return eventsByDate;
     }
 
     // Function to fill the remaining cells in the calendar grid with empty labels to complete the grid
@@ -189,7 +201,14 @@ public class CalendarDisplay extends JPanel implements EventManager.EventListene
         }
     }
 
-    // Function that is called when the events are updated in the EventManager.
+    // Function that returns the changes the calendar shows for a month: incomplete events starting in it
+    private static EventInterest interestIn(YearMonth month) {
+        return EventInterest.ALL
+                .between(month.atDay(1).atStartOfDay(), month.plusMonths(1).atDay(1).atStartOfDay())
+                .withComplete(false);
+    }
+
+    // Function that is called on the EDT when events in the shown month change in the EventManager.
     @Override
     public void eventsUpdated() {
         updateCalendar();
@@ -0,0 +1,438 @@
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * CalendarSet holds several independent calendars, e.g. team, project and personal. Each
+ * calendar is its own EventManager with its own events, lock and undo history, so a change to
+ * one calendar never waits for or copies another.
+ *
+ * Views read the selected calendars through a merged view. Each calendar keeps its events
+ * sorted in the standard orders below once they are asked for, updating them as it changes,
+ * and the merged view walks those sorted runs with a lazy k-way merge instead of concatenating
+ * and re-sorting. Switching a calendar on or off costs at most sorting that one calendar.
+ * Any other order is sorted afresh on every call and never cached, so callers passing a new
+ * comparator each time don't pile up arrays that every change has to update.
+ */
+public class CalendarSet {
+    // Order by start time, the order of the calendar view and of "Closest First" in the list view
+    public static final Comparator<Event> BY_DATE_TIME = Comparator.comparing(Event::getDateTime);
+    // Order by start time, latest first, the order of "Farthest First" in the list view
+    public static final Comparator<Event> BY_DATE_TIME_DESC = BY_DATE_TIME.reversed();
+    // Order by name, and by name in reverse, the orders of "Name Asc" and "Name Desc" in the list view
+    public static final Comparator<Event> BY_NAME = Comparator.comparing(Event::getName);
+    public static final Comparator<Event> BY_NAME_DESC = BY_NAME.reversed();
+
+    // The orders each calendar keeps its events sorted in once asked for
+    private static final Set<Comparator<Event>> CACHED_ORDERS = Set.of(BY_DATE_TIME, BY_DATE_TIME_DESC, BY_NAME, BY_NAME_DESC);
+
+    private final Map<String, Shard> shards;                              // Calendars by name, in the order added
+    private final Map<EventManager.EventListener, Registration> listeners; // Listeners subscribed to every calendar
+
+    // Constructs an empty CalendarSet
+    public CalendarSet() {
+        shards = new LinkedHashMap<>();
+        listeners = new IdentityHashMap<>();
+    }
+
+    // Function that returns a CalendarSet holding a single calendar, for views given just one EventManager
+    public static CalendarSet of(EventManager eventManager) {
+        CalendarSet calendars = new CalendarSet();
+        calendars.addCalendar("Calendar", eventManager);
+        return calendars;
+    }
+
+    // Method that adds a new, empty calendar with the given name and returns its EventManager
+    public EventManager addCalendar(String name) {
+        return addCalendar(name, new EventManager());
+    }
+
+    // Method that adds an existing EventManager as a calendar with the given name; new calendars are selected
+    public synchronized EventManager addCalendar(String name, EventManager eventManager) {
+        if (shards.containsKey(name)) {
+            throw new IllegalArgumentException("There is already a calendar named " + name);
+        }
+        shards.put(name, new Shard(eventManager));
+        listeners.forEach((listener, registration) ->
+                eventManager.subscribe(listener, registration.interest(), registration.executor()));
+        selectionChanged();
+        return eventManager;
+    }
+
+    // Method that retrieves the names of the calendars, in the order they were added
+    public synchronized List<String> getNames() {
+        return new ArrayList<>(shards.keySet());
+    }
+
+    // Method that retrieves the calendar with the given name, or null if there is no such calendar
+    public synchronized EventManager getCalendar(String name) {
+        Shard shard = shards.get(name);
+        return shard == null ? null : shard.manager;
+    }
+
+    // Method that retrieves every calendar, selected or not
+    public synchronized List<EventManager> getCalendars() {
+        List<EventManager> result = new ArrayList<>(shards.size());
+        for (Shard shard : shards.values()) {
+            result.add(shard.manager);
+        }
+        return result;
+    }
+
+    // Method that retrieves the calendar managing an event, or null if none of them does (e.g. it is archived)
+    public synchronized EventManager calendarOf(Event event) {
+        for (Shard shard : shards.values()) {
+            if (shard.manager.findById(event.getId()) == event) {
+                return shard.manager;
+            }
+        }
+        return null;
+    }
+
+    // Method that checks whether a calendar is shown in the merged view
+    public synchronized boolean isSelected(String name) {
+        Shard shard = shards.get(name);
+        return shard != null && shard.selected;
+    }
+
+    // Method that shows or hides a calendar in the merged view, telling the subscribed listeners
+    public synchronized void setSelected(String name, boolean selected) {
+        Shard shard = shards.get(name);
+        if (shard == null) {
+            throw new IllegalArgumentException("There is no calendar named " + name);
+        }
+        if (shard.selected != selected) {
+            shard.selected = selected;
+            selectionChanged();
+        }
+    }
+
+    // Method that retrieves the number of events in the selected calendars
+    public synchronized int size() {
+        int size = 0;
+        for (Shard shard : shards.values()) {
+            if (shard.selected) {
+                size += shard.manager.getEvents().size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Method that retrieves the events of the selected calendars in the given order. The result
+     * is merged lazily while it is iterated, from each calendar's cached sorted events if the
+     * order is one of the constants of this class, otherwise from a fresh sort of each calendar.
+     */
+    public Iterable<Event> events(Comparator<Event> order) {
+        List<Event[]> runs = new ArrayList<>();
+        List<int[]> bounds = new ArrayList<>();
+        for (Shard shard : selectedShards()) {
+            Event[] sorted = shard.sortedBy(order);
+            runs.add(sorted);
+            bounds.add(new int[] {0, sorted.length});
+        }
+        return () -> new MergeIterator(runs, bounds, order);
+    }
+
+    // Function that returns how many sorted arrays the calendars keep cached, for tests
+    synchronized int cachedArrays() {
+        int count = 0;
+        for (Shard shard : shards.values()) {
+            count += shard.sorted.size();
+        }
+        return count;
+    }
+
+    /**
+     * Method that retrieves the events of the selected calendars starting in [from, to) in time
+     * order, including archived ones if the range reaches into a calendar's archive. Each calendar
+     * finds its range by binary search in its events sorted by time.
+     */
+    public List<Event> getEventsBetween(LocalDateTime from, LocalDateTime to) {
+        List<Event[]> runs = new ArrayList<>();
+        List<int[]> bounds = new ArrayList<>();
+        for (Shard shard : selectedShards()) {
+            Event[] sorted = shard.sortedBy(BY_DATE_TIME);
+            runs.add(sorted);
+            bounds.add(new int[] {firstAtOrAfter(sorted, from), firstAtOrAfter(sorted, to)});
+
+            EventArchive archive = shard.manager.getArchive();
+            if (archive != null) {
+                Event[] archived = archive.getEventsBetween(from, to).toArray(new Event[0]);
+                Arrays.sort(archived, BY_DATE_TIME);
+                runs.add(archived);
+                bounds.add(new int[] {0, archived.length});
+            }
+        }
+        List<Event> result = new ArrayList<>();
+        new MergeIterator(runs, bounds, BY_DATE_TIME).forEachRemaining(result::add);
+        return result;
+    }
+
+    // Method that retrieves every archived event of the selected calendars
+    public List<Event> getArchivedEvents() {
+        List<Event> result = new ArrayList<>();
+        for (Shard shard : selectedShards()) {
+            EventArchive archive = shard.manager.getArchive();
+            if (archive != null) {
+                result.addAll(archive.getAllEvents());
+            }
+        }
+        return result;
+    }
+
+    // Method that checks whether any calendar archives its events
+    public synchronized boolean hasArchive() {
+        for (Shard shard : shards.values()) {
+            if (shard.manager.getArchive() != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Method that subscribes an EventListener to the changes of every calendar, including those
+     * added later, and to calendars being shown or hidden. Like EventManager.subscribe(), it is
+     * idempotent and notifications run on the given executor.
+     */
+    public synchronized void subscribe(EventManager.EventListener listener, EventInterest interest, Executor executor) {
+        if (listeners.putIfAbsent(listener, new Registration(interest, executor)) == null) {
+            for (Shard shard : shards.values()) {
+                shard.manager.subscribe(listener, interest, executor);
+            }
+        }
+    }
+
+    // Method that changes which changes a subscribed listener cares about, in every calendar
+    public synchronized void setInterest(EventManager.EventListener listener, EventInterest interest) {
+        Registration registration = listeners.get(listener);
+        if (registration == null) {
+            throw new IllegalArgumentException("The listener is not subscribed");
+        }
+        listeners.put(listener, new Registration(interest, registration.executor()));
+        for (Shard shard : shards.values()) {
+            shard.manager.subscribe(listener, interest, registration.executor()).setInterest(interest);
+        }
+    }
+
+    // Method that stops notifications to a listener, returning false if it was not subscribed
+    public synchronized boolean unsubscribe(EventManager.EventListener listener) {
+        if (listeners.remove(listener) == null) {
+            return false;
+        }
+        for (Shard shard : shards.values()) {
+            shard.manager.unsubscribe(listener);
+        }
+        return true;
+    }
+
+    // Function that tells every subscribed listener that the selected calendars changed
+    private void selectionChanged() {
+        listeners.forEach((listener, registration) -> registration.executor().execute(listener::eventsUpdated));
+    }
+
+    // Function that retrieves the selected calendars
+    private synchronized List<Shard> selectedShards() {
+        List<Shard> result = new ArrayList<>();
+        for (Shard shard : shards.values()) {
+            if (shard.selected) {
+                result.add(shard);
+            }
+        }
+        return result;
+    }
+
+    // Function that returns the index of the first event starting at or after a time, in events sorted by time
+    private static int firstAtOrAfter(Event[] sorted, LocalDateTime time) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (sorted[middle].getDateTime().isBefore(time)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    // The interest and executor a listener subscribed with, used to subscribe it to calendars added later
+    private record Registration(EventInterest interest, Executor executor) {
+    }
+
+    /**
+     * A Shard is one calendar: its EventManager, whether it is shown, and its events sorted in
+     * each order asked for so far. The sorted events are dropped whenever the calendar changes.
+     */
+    private static final class Shard implements EventManager.ChangeListener {
+        private final EventManager manager;                             // The calendar's events
+        private final Map<Comparator<Event>, Event[]> sorted;           // Events sorted by each order asked for, never changed once cached
+        private final Set<Event> changed;                               // Events changed since the sorted arrays were updated, guarded by the manager
+        private volatile boolean stale = false;                         // Whether changed holds events the sorted arrays do not reflect yet
+        private volatile boolean selected = true;                       // Whether the calendar is shown
+
+        Shard(EventManager manager) {
+            this.manager = manager;
+            this.sorted = new ConcurrentHashMap<>();
+            this.changed = Collections.newSetFromMap(new IdentityHashMap<>());
+            manager.addChangeListener(this);
+        }
+
+        /**
+         * Called by the EventManager, while it is locked, with every change to this calendar.
+         * Only notes which events changed; the sorted arrays catch up on the next read. When more
+         * events changed than the calendar holds, sorting afresh is cheaper and the arrays are dropped.
+         */
+        @Override
+        public void eventsChanged(List<EventChange> changes) {
+            if (sorted.isEmpty()) {
+                return;
+            }
+            for (EventChange change : changes) {
+                changed.add(change.event());
+            }
+            if (changed.size() > manager.getEvents().size()) {
+                sorted.clear();
+                changed.clear();
+                stale = false;
+            } else {
+                stale = true;
+            }
+        }
+
+        // Function that returns the calendar's events sorted in the given order, sorting them if needed
+        Event[] sortedBy(Comparator<Event> order) {
+            if (!CACHED_ORDERS.contains(order)) {
+                synchronized (manager) {
+                    return sort(order);
+                }
+            }
+            Event[] events = stale ? null : sorted.get(order);
+            if (events != null) {
+                return events;
+            }
+            // Update and sort while the calendar is locked, so no event moves meanwhile
+            synchronized (manager) {
+                if (stale) {
+                    sorted.replaceAll(this::updated);
+                    changed.clear();
+                    stale = false;
+                }
+                return sorted.computeIfAbsent(order, this::sort);
+            }
+        }
+
+        // Function that sorts the calendar's events into a new array, called while the calendar is locked
+        private Event[] sort(Comparator<Event> order) {
+            Event[] array = manager.getEvents().toArray(new Event[0]);
+            Arrays.parallelSort(array, order);
+            return array;
+        }
+
+        /**
+         * Function that returns a copy of a sorted array reflecting the changed events. Their old
+         * slots are found by identity, since their fields already hold the new values; those still
+         * in the calendar are then inserted where their new values belong, found by binary search.
+         * This costs O(n + k log n) for k changed events, rather than the O(n log n) of a new sort.
+         */
+        private Event[] updated(Comparator<Event> order, Event[] events) {
+            List<Event> present = new ArrayList<>();
+            for (Event event : changed) {
+                if (manager.findById(event.getId()) == event) {
+                    present.add(event);
+                }
+            }
+            present.sort(order);
+
+            Event[] kept = new Event[events.length];
+            int size = 0;
+            for (Event event : events) {
+                if (!changed.contains(event)) {
+                    kept[size++] = event;
+                }
+            }
+
+            Event[] result = new Event[size + present.size()];
+            int from = 0;
+            int to = 0;
+            for (Event event : present) {
+                int slot = firstAfter(kept, from, size, event, order);
+                System.arraycopy(kept, from, result, to, slot - from);
+                to += slot - from;
+                result[to++] = event;
+                from = slot;
+            }
+            System.arraycopy(kept, from, result, to, size - from);
+            return result;
+        }
+
+        // Function that returns the index of the first event in [from, to) of a sorted array that comes after the given one
+        private static int firstAfter(Event[] events, int from, int to, Event event, Comparator<Event> order) {
+            while (from < to) {
+                int middle = (from + to) >>> 1;
+                if (order.compare(events[middle], event) <= 0) {
+                    from = middle + 1;
+                } else {
+                    to = middle;
+                }
+            }
+            return from;
+        }
+    }
+
+    /**
+     * MergeIterator walks several sorted runs of events in one order, always taking the smallest
+     * head next. Each step costs O(log k) for k runs; runs are ranked so that equal events keep
+     * the order of the calendars.
+     */
+    private static final class MergeIterator implements Iterator<Event> {
+        private final PriorityQueue<int[]> heads;  // Per run with events left: {run, next index, end index}
+        private final List<Event[]> runs;          // The sorted runs being merged
+
+        MergeIterator(List<Event[]> runs, List<int[]> bounds, Comparator<Event> order) {
+            this.runs = runs;
+            this.heads = new PriorityQueue<>(Math.max(1, runs.size()), (a, b) -> {
+                int compared = order.compare(runs.get(a[0])[a[1]], runs.get(b[0])[b[1]]);
+                return compared != 0 ? compared : Integer.compare(a[0], b[0]);
+            });
+            for (int run = 0; run < runs.size(); run++) {
+                int[] bound = bounds.get(run);
+                if (bound[0] < bound[1]) {
+                    heads.add(new int[] {run, bound[0], bound[1]});
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !heads.isEmpty();
+        }
+
+        @Override
+        public Event next() {
+            int[] head = heads.poll();
+            if (head == null) {
+                throw new NoSuchElementException();
+            }
+            Event event = runs.get(head[0])[head[1]++];
+            if (head[1] < head[2]) {
+                heads.add(head);
+            }
+            return event;
+        }
+    }
+}
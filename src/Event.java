@@ -2,9 +2,15 @@ import java.time.LocalDateTime;
 
 public abstract class Event implements Comparable<Event>, Completable {
 
-    private String name;
-    private LocalDateTime dateTime;
-    private boolean complete = false;
+    // Fields are volatile because views and other readers read them without taking the EventManager's lock
+    private volatile String name;
+    private volatile LocalDateTime dateTime;
+    private volatile boolean complete = false;
+    private int id = UNASSIGNED_ID;   // Stable ID assigned by the EventManager
+    private EventManager manager;     // EventManager the event is in, null while it is in none
+
+    // Marker for an event that has not been assigned an ID yet
+    public static final int UNASSIGNED_ID = -1;
 
     // Constructor
     public Event(String name, LocalDateTime dateTime) {
@@ -22,6 +28,32 @@ public abstract class Event implements Comparable<Event>, Completable {
         return this.dateTime;
     }
 
+    // Getter method for id
+    public int getId() {
+        return this.id;
+    }
+
+    // Setter method for id, only the EventManager hands out IDs
+    void setId(int id) {
+        this.id = id;
+    }
+
+    // Method that claims the event for an EventManager, returning false if another manager already has it
+    synchronized boolean claim(EventManager manager) {
+        if (this.manager != null && this.manager != manager) {
+            return false;
+        }
+        this.manager = manager;
+        return true;
+    }
+
+    // Method that gives up an EventManager's claim on the event once it no longer manages it
+    synchronized void release(EventManager manager) {
+        if (this.manager == manager) {
+            this.manager = null;
+        }
+    }
+
     // Setter method for name
     public void setName(String name) {
         this.name = name;
@@ -48,4 +80,9 @@ public abstract class Event implements Comparable<Event>, Completable {
     public boolean isComplete() {
         return this.complete;
     }
+
+    // Setter method for the completion state, used by the EventManager to undo a completion
+    void setComplete(boolean complete) {
+        this.complete = complete;
+    }
 }
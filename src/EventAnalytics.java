@@ -0,0 +1,204 @@
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.TemporalAdjusters;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * EventAnalytics keeps scheduling totals for one or more EventManagers up to date as they change:
+ * meeting time per week and per location, open and completed deadlines per month, and the
+ * number of overdue deadlines. Every change is applied as "take away the before state, add
+ * the after state", so adds, removes, reschedules, completions and undo/redo all cost a few
+ * map updates and no query ever walks the events.
+ *
+ * Archived events still count: an ARCHIVE change only moves an event out of memory, and the
+ * events already in the archive are counted once when the analytics are attached.
+ */
+public class EventAnalytics implements EventManager.ChangeListener {
+    private final Map<LocalDate, Long> meetingMinutesByWeek;       // Meeting minutes per week, keyed by its Monday
+    private final Map<String, Long> meetingMinutesByLocation;      // Meeting minutes per location
+    private final Map<YearMonth, DeadlineCounts> deadlinesByMonth; // Open and completed deadlines per month
+    private final TreeMap<LocalDateTime, Integer> openDeadlines;   // Number of open deadlines due at each time
+    private LocalDateTime overdueBefore = LocalDateTime.MIN;       // Time the overdue count was last computed for
+    private int overdueCount = 0;                                  // Open deadlines due before overdueBefore
+
+    // Constructs an EventAnalytics counting the events already in the manager and its archive, and attaches it
+    public EventAnalytics(EventManager eventManager) {
+        this();
+        attach(eventManager);
+    }
+
+    // Constructs an EventAnalytics that counts nothing until it is attached to EventManagers
+    public EventAnalytics() {
+        meetingMinutesByWeek = new TreeMap<>();
+        meetingMinutesByLocation = new HashMap<>();
+        deadlinesByMonth = new TreeMap<>();
+        openDeadlines = new TreeMap<>();
+    }
+
+    // Method that adds the events of another EventManager (e.g. another calendar) and its archive to the totals
+    public void attach(EventManager eventManager) {
+        // Count and attach while the manager is locked so that no change is missed or counted twice
+        synchronized (eventManager) {
+            synchronized (this) {
+                for (Event event : eventManager.getEvents()) {
+                    add(event, EventChange.State.of(event));
+                }
+                EventArchive archive = eventManager.getArchive();
+                if (archive != null) {
+                    for (Event event : archive.getAllEvents()) {
+                        add(event, EventChange.State.of(event));
+                    }
+                }
+            }
+            eventManager.addChangeListener(this);
+        }
+    }
+
+    /**
+     * Method that is called by the EventManager with every change while it is locked.
+     * Implements the EventManager.ChangeListener interface method.
+     */
+    @Override
+    public synchronized void eventsChanged(List<EventChange> changes) {
+        for (EventChange change : changes) {
+            if (change.kind() == EventChange.Kind.ARCHIVE) {
+                continue;
+            }
+            if (change.before() != null) {
+                remove(change.event(), change.before());
+            }
+            if (change.after() != null) {
+                add(change.event(), change.after());
+            }
+        }
+    }
+
+    // Method that retrieves the total meeting time in the week (Monday to Sunday) containing the given day
+    public synchronized Duration getMeetingTime(LocalDate dayInWeek) {
+        return Duration.ofMinutes(meetingMinutesByWeek.getOrDefault(weekOf(dayInWeek), 0L));
+    }
+
+    // Method that retrieves the total meeting time at a location
+    public synchronized Duration getMeetingTime(String location) {
+        return Duration.ofMinutes(meetingMinutesByLocation.getOrDefault(location, 0L));
+    }
+
+    // Method that retrieves the meeting time of every week that has meetings, keyed by the week's Monday
+    public synchronized SortedMap<LocalDate, Duration> getMeetingTimeByWeek() {
+        SortedMap<LocalDate, Duration> result = new TreeMap<>();
+        meetingMinutesByWeek.forEach((week, minutes) -> result.put(week, Duration.ofMinutes(minutes)));
+        return result;
+    }
+
+    // Method that retrieves the meeting time of every location that has meetings
+    public synchronized SortedMap<String, Duration> getMeetingTimeByLocation() {
+        SortedMap<String, Duration> result = new TreeMap<>();
+        meetingMinutesByLocation.forEach((location, minutes) -> result.put(location, Duration.ofMinutes(minutes)));
+        return result;
+    }
+
+    // Method that retrieves the number of open and completed deadlines due in a month
+    public synchronized DeadlineCounts getDeadlineCounts(YearMonth month) {
+        return deadlinesByMonth.getOrDefault(month, DeadlineCounts.NONE);
+    }
+
+    // Method that retrieves the deadline counts of every month that has deadlines
+    public synchronized SortedMap<YearMonth, DeadlineCounts> getDeadlineCountsByMonth() {
+        return new TreeMap<>(deadlinesByMonth);
+    }
+
+    // Method that retrieves the number of open deadlines that are already due
+    public int getOverdueCount() {
+        return getOverdueCount(LocalDateTime.now());
+    }
+
+    /**
+     * Method that retrieves the number of open deadlines due before the given time. The count
+     * is kept for the last time asked about and only the deadlines that fell due since then are
+     * visited, so asking again as the clock moves on costs next to nothing.
+     */
+    public synchronized int getOverdueCount(LocalDateTime now) {
+        if (now.isAfter(overdueBefore)) {
+            overdueCount += count(openDeadlines.subMap(overdueBefore, true, now, false));
+        } else if (now.isBefore(overdueBefore)) {
+            overdueCount -= count(openDeadlines.subMap(now, true, overdueBefore, false));
+        }
+        overdueBefore = now;
+        return overdueCount;
+    }
+
+    // Function that adds an event in the given state to the totals
+    private void add(Event event, EventChange.State state) {
+        update(event, state, 1);
+    }
+
+    // Function that takes an event in the given state away from the totals
+    private void remove(Event event, EventChange.State state) {
+        update(event, state, -1);
+    }
+
+    // Function that adds (sign 1) or takes away (sign -1) an event's contribution to every total
+    private void update(Event event, EventChange.State state, int sign) {
+        if (event instanceof Meeting) {
+            long minutes = sign * Duration.between(state.dateTime(), state.endDateTime()).toMinutes();
+            meetingMinutesByWeek.merge(weekOf(state.dateTime().toLocalDate()), minutes, EventAnalytics::sumOrNull);
+            meetingMinutesByLocation.merge(state.location(), minutes, EventAnalytics::sumOrNull);
+        } else if (event instanceof Deadline) {
+            DeadlineCounts change = state.complete() ? new DeadlineCounts(0, sign) : new DeadlineCounts(sign, 0);
+            deadlinesByMonth.merge(YearMonth.from(state.dateTime()), change, DeadlineCounts::plus);
+            if (!state.complete()) {
+                openDeadlines.merge(state.dateTime(), sign, (a, b) -> a + b == 0 ? null : a + b);
+                if (state.dateTime().isBefore(overdueBefore)) {
+                    overdueCount += sign;
+                }
+            }
+        }
+    }
+
+    // Function that returns the Monday of the week containing a day
+    private static LocalDate weekOf(LocalDate day) {
+        return day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+
+    // Function that adds two totals, dropping the entry once it is back to zero
+    private static Long sumOrNull(Long a, Long b) {
+        long sum = a + b;
+        return sum == 0 ? null : sum;
+    }
+
+    // Function that adds up the deadlines in a range of due times
+    private static int count(NavigableMap<LocalDateTime, Integer> deadlines) {
+        int count = 0;
+        for (int n : deadlines.values()) {
+            count += n;
+        }
+        return count;
+    }
+
+    /**
+     * DeadlineCounts holds how many deadlines in a month are still open and how many are completed.
+     */
+    public record DeadlineCounts(int open, int completed) {
+        // No deadlines at all
+        public static final DeadlineCounts NONE = new DeadlineCounts(0, 0);
+
+        // Method that adds two counts, returning null once both are back to zero
+        DeadlineCounts plus(DeadlineCounts other) {
+            DeadlineCounts sum = new DeadlineCounts(open + other.open, completed + other.completed);
+            return sum.equals(NONE) ? null : sum;
+        }
+
+        // Method that retrieves the total number of deadlines
+        public int total() {
+            return open + completed;
+        }
+    }
+}
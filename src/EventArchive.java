@@ -0,0 +1,197 @@
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * EventArchive keeps events that no longer need to be in memory (completed or long past) on
+ * disk, partitioned by the month they start in. Each partition is a file of compressed blocks,
+ * one block per batch of archived events:
+ *
+ *   compressed length (int), uncompressed length (int), deflated records
+ *
+ * where each record is the event ID followed by its EventChange.State. Partitions are read
+ * through a memory-mapped file and only when a query reaches into their month; the most
+ * recently used ones stay cached.
+ */
+public class EventArchive {
+    private static final String SUFFIX = ".events";     // File name suffix of a partition
+    private static final int CACHED_PARTITIONS = 12;    // Number of decoded partitions kept in memory
+
+    private final Path directory;                       // Directory holding the partition files
+    private final TreeSet<YearMonth> partitions;        // Months that have a partition file
+    private final Map<YearMonth, List<Event>> cache;    // Recently loaded partitions, least recently used first
+
+    // Constructs an EventArchive in the given directory, creating it if necessary
+    public EventArchive(Path directory) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.partitions = new TreeSet<>();
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<YearMonth, List<Event>> eldest) {
+                return size() > CACHED_PARTITIONS;
+            }
+        };
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                partitions.add(YearMonth.parse(name.substring(0, name.length() - SUFFIX.length())));
+            }
+        }
+    }
+
+    // Method that writes events to the partitions of the months they start in
+    public synchronized void append(Collection<Event> events) throws IOException {
+        Map<YearMonth, List<Event>> byMonth = new TreeMap<>();
+        for (Event event : events) {
+            byMonth.computeIfAbsent(YearMonth.from(event.getDateTime()), month -> new ArrayList<>()).add(event);
+        }
+        for (Map.Entry<YearMonth, List<Event>> entry : byMonth.entrySet()) {
+            appendBlock(entry.getKey(), entry.getValue());
+            partitions.add(entry.getKey());
+            cache.remove(entry.getKey());
+        }
+    }
+
+    // Method that retrieves the archived events starting in [from, to), loading only the partitions in that range
+    public synchronized List<Event> getEventsBetween(LocalDateTime from, LocalDateTime to) {
+        List<Event> result = new ArrayList<>();
+        YearMonth first = YearMonth.from(from);
+        YearMonth last = YearMonth.from(to.minusNanos(1));
+        if (last.isBefore(first)) {
+            return result;
+        }
+        for (YearMonth month : partitions.subSet(first, true, last, true)) {
+            for (Event event : load(month)) {
+                if (!event.getDateTime().isBefore(from) && event.getDateTime().isBefore(to)) {
+                    result.add(event);
+                }
+            }
+        }
+        return result;
+    }
+
+    // Method that retrieves every archived event, loading all partitions
+    public synchronized List<Event> getAllEvents() {
+        List<Event> result = new ArrayList<>();
+        for (YearMonth month : partitions) {
+            result.addAll(load(month));
+        }
+        return result;
+    }
+
+    // Method that retrieves the months that have archived events
+    public synchronized List<YearMonth> getPartitions() {
+        return new ArrayList<>(partitions);
+    }
+
+    // Function that returns the events of a partition, decoding it if it is not cached
+    private List<Event> load(YearMonth month) {
+        List<Event> events = cache.get(month);
+        if (events == null) {
+            try {
+                events = Collections.unmodifiableList(readPartition(month));
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Could not read archive partition " + month, ex);
+            }
+            cache.put(month, events);
+        }
+        return events;
+    }
+
+    // Function that compresses a batch of events and appends it as one block to a partition
+    private void appendBlock(YearMonth month, List<Event> events) throws IOException {
+        ByteArrayOutputStream raw = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(raw);
+        out.writeInt(events.size());
+        for (Event event : events) {
+            out.writeInt(event.getId());
+            EventChange.State.of(event).write(out);
+        }
+        byte[] uncompressed = raw.toByteArray();
+
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        deflater.setInput(uncompressed);
+        deflater.finish();
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(uncompressed.length / 2 + 64);
+        byte[] chunk = new byte[8192];
+        while (!deflater.finished()) {
+            compressed.write(chunk, 0, deflater.deflate(chunk));
+        }
+        deflater.end();
+
+        ByteBuffer header = ByteBuffer.allocate(2 * Integer.BYTES);
+        header.putInt(compressed.size()).putInt(uncompressed.length).flip();
+        try (FileChannel channel = FileChannel.open(partitionFile(month),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer[] block = {header, ByteBuffer.wrap(compressed.toByteArray())};
+            while (block[1].hasRemaining()) {
+                channel.write(block);
+            }
+        }
+    }
+
+    // Function that maps a partition file and decodes all of its blocks
+    private List<Event> readPartition(YearMonth month) throws IOException {
+        List<Event> events = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(partitionFile(month), StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            Inflater inflater = new Inflater();
+            try {
+                while (mapped.remaining() >= 2 * Integer.BYTES) {
+                    int compressedLength = mapped.getInt();
+                    byte[] uncompressed = new byte[mapped.getInt()];
+                    inflater.reset();
+                    inflater.setInput(mapped.slice(mapped.position(), compressedLength));
+                    inflater.inflate(uncompressed);
+                    mapped.position(mapped.position() + compressedLength);
+                    readRecords(uncompressed, events);
+                }
+            } catch (DataFormatException ex) {
+                throw new IOException("Corrupt archive partition " + month, ex);
+            } finally {
+                inflater.end();
+            }
+        }
+        return events;
+    }
+
+    // Function that decodes the records of one block
+    private static void readRecords(byte[] block, List<Event> events) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(block));
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            int id = in.readInt();
+            Event event = EventChange.State.read(in).toEvent();
+            event.setId(id);
+            events.add(event);
+        }
+    }
+
+    // Function that returns the file of a partition
+    private Path partitionFile(YearMonth month) {
+        return directory.resolve(month + SUFFIX);
+    }
+}
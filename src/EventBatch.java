@@ -0,0 +1,398 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Predicate;
+
+/**
+ * EventBatch is the headless command-line entry point for batch jobs. It never touches AWT or
+ * Swing, so it starts quickly and runs on servers without a display. The command line is a
+ * pipeline of stages applied in order to the events of one EventManager:
+ *
+ *   load FILE             add the events in a file of JSON objects, one per line ("-" for stdin)
+ *   filter COND...        keep only the events matching all the conditions
+ *   shift DURATION COND...  move the matching events (all if no condition) by an ISO-8601 duration, e.g. P1D or -PT2H
+ *   complete COND...      complete the matching events (all if no condition)
+ *   dedupe                remove events equal to an earlier one apart from completion
+ *   export FILE           write the events as JSON lines ("-" for stdout)
+ *
+ * Conditions are key=value: type=meeting|deadline, from=TIME, to=TIME (start in [from, to)),
+ * complete=true|false, location=TEXT, name=TEXT (name contains). TIME is a date, a date-time,
+ * "today" or "now". For example:
+ *
+ *   java EventBatch load team.jsonl load personal.jsonl dedupe complete type=deadline to=today
+ *                   filter from=2024-01-01 export current.jsonl
+ *
+ * Input is read and parsed in chunks in parallel while it streams in. Consecutive loads from
+ * different sources, and exports to different targets, are independent and run at the same time; filter,
+ * shift and complete use the EventManager's parallel bulk operations, without keeping undo
+ * history. A summary of each stage goes to stderr. A line that cannot be parsed stops the job
+ * with its file and line number and exit status 1; a bad command line exits with status 2.
+ * When it is run many times from a jar, class data sharing cuts startup further, e.g.
+ * -XX:+AutoCreateSharedArchive -XX:SharedArchiveFile=eventbatch.jsa -XX:TieredStopAtLevel=1
+ */
+public final class EventBatch {
+    private static final int CHUNK_LINES = 4096;   // Number of lines parsed together while loading
+    private static final int CHUNKS_IN_FLIGHT = 2 * Runtime.getRuntime().availableProcessors(); // Chunks parsed at once
+    private static final Set<String> STAGES = Set.of("load", "filter", "shift", "complete", "dedupe", "export");
+
+    private final EventManager eventManager;   // Holds the events flowing through the pipeline
+    private final InputStream stdin;           // Read by "load -"
+    private final PrintStream stdout;          // Written by "export -"
+    private final PrintStream log;             // Receives the summary of each stage
+
+    // Constructs an EventBatch over an empty EventManager that keeps no undo history
+    public EventBatch(InputStream stdin, PrintStream stdout, PrintStream log) {
+        this.eventManager = new EventManager(0);
+        this.stdin = stdin;
+        this.stdout = stdout;
+        this.log = log;
+    }
+
+    public static void main(String[] args) {
+        int status;
+        try {
+            new EventBatch(System.in, System.out, System.err).run(args);
+            status = 0;
+        } catch (IllegalArgumentException ex) {
+            System.err.println("Error: " + ex.getMessage());
+            System.err.println("Usage: java EventBatch (load FILE | filter COND... | shift DURATION COND... "
+                    + "| complete COND... | dedupe | export FILE)...");
+            status = 2;
+        } catch (UncheckedIOException | DataException ex) {
+            System.err.println("Error: " + ex.getMessage());
+            status = 1;
+        }
+        System.out.flush();
+        System.exit(status);
+    }
+
+    // Method that runs a pipeline given as command-line arguments
+    public void run(String[] args) {
+        List<Stage> stages = parse(args);
+        if (stages.isEmpty()) {
+            throw new IllegalArgumentException("No stages given");
+        }
+        for (int i = 0; i < stages.size(); ) {
+            // Runs of loads, and runs of exports, don't depend on each other and run together
+            int end = i + 1;
+            if (stages.get(i).name().equals("load") || stages.get(i).name().equals("export")) {
+                while (end < stages.size() && stages.get(end).name().equals(stages.get(i).name())) {
+                    end++;
+                }
+            }
+            List<Stage> group = stages.subList(i, end);
+            switch (group.get(0).name()) {
+                case "load" -> load(group);
+                case "export" -> export(group);
+                default -> transform(group.get(0));
+            }
+            i = end;
+        }
+    }
+
+    // Method that retrieves the EventManager holding the events
+    public EventManager getEventManager() {
+        return eventManager;
+    }
+
+    // Function that splits the arguments into stages, each a stage name followed by its arguments
+    private static List<Stage> parse(String[] args) {
+        List<Stage> stages = new ArrayList<>();
+        for (String arg : args) {
+            if (STAGES.contains(arg)) {
+                stages.add(new Stage(arg, new ArrayList<>()));
+            } else if (stages.isEmpty()) {
+                throw new IllegalArgumentException("Expected a stage but got: " + arg);
+            } else {
+                stages.get(stages.size() - 1).args().add(arg);
+            }
+        }
+        for (Stage stage : stages) {
+            int count = stage.args().size();
+            boolean valid = switch (stage.name()) {
+                case "load", "export" -> count == 1;
+                case "shift" -> count >= 1;
+                case "dedupe" -> count == 0;
+                default -> true;
+            };
+            if (!valid) {
+                throw new IllegalArgumentException("Wrong number of arguments for " + stage.name() + ": " + stage.args());
+            }
+        }
+        return stages;
+    }
+
+    /**
+     * Function that reads the files of consecutive loads at the same time, then adds them in
+     * order. Loads from the same source, such as stdin twice, read one after the other so that
+     * they don't take lines from each other.
+     */
+    private void load(List<Stage> loads) {
+        long start = System.nanoTime();
+        List<CompletableFuture<List<Event>>> reads = new ArrayList<>();
+        Map<Object, CompletableFuture<List<Event>>> lastRead = new HashMap<>();
+        for (Stage stage : loads) {
+            String source = stage.args().get(0);
+            Object key = targetKey(source);
+            CompletableFuture<List<Event>> previous = lastRead.get(key);
+            CompletableFuture<List<Event>> read = previous == null
+                    ? CompletableFuture.supplyAsync(() -> read(source))
+                    : previous.thenApplyAsync(events -> read(source));
+            lastRead.put(key, read);
+            reads.add(read);
+        }
+        for (int i = 0; i < loads.size(); i++) {
+            List<Event> events = join(reads.get(i));
+            eventManager.loadEvents(events);
+            summary("load", loads.get(i).args().get(0), events.size(), start);
+        }
+    }
+
+    // Function that streams a file of JSON lines, parsing chunks of lines in parallel while reading on
+    private List<Event> read(String source) {
+        try (BufferedReader reader = source.equals("-")
+                ? new BufferedReader(new InputStreamReader(stdin, StandardCharsets.UTF_8))
+                : Files.newBufferedReader(Path.of(source))) {
+            List<Event> events = new ArrayList<>();
+            Deque<CompletableFuture<List<Event>>> parsing = new ArrayDeque<>();
+            List<String> lines = new ArrayList<>(CHUNK_LINES);
+            int firstLine = 1;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+                if (lines.size() == CHUNK_LINES) {
+                    List<String> chunk = lines;
+                    int chunkLine = firstLine;
+                    parsing.add(CompletableFuture.supplyAsync(() -> parseChunk(source, chunkLine, chunk)));
+                    lines = new ArrayList<>(CHUNK_LINES);
+                    firstLine += CHUNK_LINES;
+                    // Keep the number of chunks in memory bounded when parsing falls behind reading
+                    if (parsing.size() >= CHUNKS_IN_FLIGHT) {
+                        events.addAll(join(parsing.poll()));
+                    }
+                }
+            }
+            parsing.add(CompletableFuture.completedFuture(parseChunk(source, firstLine, lines)));
+            while (!parsing.isEmpty()) {
+                events.addAll(join(parsing.poll()));
+            }
+            return events;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not read " + source, ex);
+        }
+    }
+
+    // Function that parses a chunk of JSON lines starting at the given line number, skipping blank lines
+    private static List<Event> parseChunk(String source, int firstLine, List<String> lines) {
+        List<Event> events = new ArrayList<>(lines.size());
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i);
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                events.add(EventJson.fromJson(line));
+            } catch (RuntimeException ex) {
+                throw new DataException(source + ":" + (firstLine + i) + ": " + ex.getMessage(), ex);
+            }
+        }
+        return events;
+    }
+
+    // Function that runs a stage that changes the events
+    private void transform(Stage stage) {
+        long start = System.nanoTime();
+        List<String> args = stage.args();
+        int count = switch (stage.name()) {
+            case "filter" -> eventManager.removeWhere(parseConditions(args).negate());
+            case "shift" -> eventManager.rescheduleWhere(parseConditions(args.subList(1, args.size())),
+                    parseDuration(args.get(0)));
+            case "complete" -> eventManager.completeWhere(parseConditions(args));
+            case "dedupe" -> dedupe();
+            default -> throw new IllegalArgumentException("Unknown stage: " + stage.name());
+        };
+        summary(stage.name(), String.join(" ", args), count, start);
+    }
+
+    // Function that removes every event equal to an earlier one (by ID) in everything but completion
+    private int dedupe() {
+        Set<List<Object>> seen = new HashSet<>();
+        BitSet duplicates = new BitSet();
+        for (Event event : eventManager.getEvents()) {
+            List<Object> key = List.of(event.getClass(), EventChange.State.of(event).withComplete(false));
+            if (!seen.add(key)) {
+                duplicates.set(event.getId());
+            }
+        }
+        return duplicates.isEmpty() ? 0 : eventManager.removeWhere(event -> duplicates.get(event.getId()));
+    }
+
+    /**
+     * Function that writes the current events to the targets of consecutive exports at the same
+     * time. Exports to the same target, such as stdout twice, run one after the other so that
+     * their lines don't interleave.
+     */
+    private void export(List<Stage> exports) {
+        long start = System.nanoTime();
+        EventSnapshot events = eventManager.getEvents();
+        List<CompletableFuture<Void>> writes = new ArrayList<>();
+        Map<Object, CompletableFuture<Void>> lastWrite = new HashMap<>();
+        for (Stage stage : exports) {
+            String target = stage.args().get(0);
+            Object key = targetKey(target);
+            CompletableFuture<Void> previous = lastWrite.get(key);
+            CompletableFuture<Void> write = previous == null
+                    ? CompletableFuture.runAsync(() -> write(events, target))
+                    : previous.thenRunAsync(() -> write(events, target));
+            lastWrite.put(key, write);
+            writes.add(write);
+        }
+        for (int i = 0; i < exports.size(); i++) {
+            join(writes.get(i));
+            summary("export", exports.get(i).args().get(0), events.size(), start);
+        }
+    }
+
+    // Function that identifies a file or "-" for stdin/stdout, so that two spellings of the same file match
+    private static Object targetKey(String target) {
+        return target.equals("-") ? target : Path.of(target).toAbsolutePath().normalize();
+    }
+
+    // Function that writes events as JSON lines to a file, or to stdout for "-"
+    private void write(EventSnapshot events, String target) {
+        try {
+            Writer writer = target.equals("-")
+                    ? new BufferedWriter(new OutputStreamWriter(stdout, StandardCharsets.UTF_8), 1 << 16)
+                    : Files.newBufferedWriter(Path.of(target));
+            try {
+                for (Event event : events) {
+                    writer.write(EventJson.toJson(event));
+                    writer.write('\n');
+                }
+            } finally {
+                // Flush stdout but leave it open for whoever else writes to it
+                if (target.equals("-")) {
+                    writer.flush();
+                } else {
+                    writer.close();
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not write " + target, ex);
+        }
+    }
+
+    // Function that builds a predicate matching events that meet all the key=value conditions
+    static Predicate<Event> parseConditions(List<String> conditions) {
+        Predicate<Event> predicate = event -> true;
+        for (String condition : conditions) {
+            int equals = condition.indexOf('=');
+            if (equals < 0) {
+                throw new IllegalArgumentException("Expected key=value but got: " + condition);
+            }
+            String key = condition.substring(0, equals);
+            String value = condition.substring(equals + 1);
+            Predicate<Event> test = switch (key) {
+                case "type" -> switch (value.toLowerCase(Locale.ROOT)) {
+                    case "meeting" -> event -> event instanceof Meeting;
+                    case "deadline" -> event -> event instanceof Deadline;
+                    default -> throw new IllegalArgumentException("Unknown type: " + value);
+                };
+                case "from" -> {
+                    LocalDateTime from = parseTime(value);
+                    yield event -> !event.getDateTime().isBefore(from);
+                }
+                case "to" -> {
+                    LocalDateTime to = parseTime(value);
+                    yield event -> event.getDateTime().isBefore(to);
+                }
+                case "complete" -> {
+                    if (!value.equals("true") && !value.equals("false")) {
+                        throw new IllegalArgumentException("complete must be true or false: " + value);
+                    }
+                    boolean complete = Boolean.parseBoolean(value);
+                    yield event -> event.isComplete() == complete;
+                }
+                case "location" -> event -> event instanceof Meeting meeting && value.equals(meeting.getLocation());
+                case "name" -> event -> event.getName().contains(value);
+                default -> throw new IllegalArgumentException("Unknown condition: " + key);
+            };
+            predicate = predicate.and(test);
+        }
+        return predicate;
+    }
+
+    // Function that reads a time given as a date, a date-time, "today" or "now"
+    private static LocalDateTime parseTime(String value) {
+        try {
+            return switch (value) {
+                case "now" -> LocalDateTime.now();
+                case "today" -> LocalDate.now().atStartOfDay();
+                default -> value.contains("T") ? LocalDateTime.parse(value) : LocalDate.parse(value).atStartOfDay();
+            };
+        } catch (RuntimeException ex) {
+            throw new IllegalArgumentException("Invalid time: " + value, ex);
+        }
+    }
+
+    // Function that reads an ISO-8601 duration such as P1D or -PT2H
+    private static Duration parseDuration(String value) {
+        try {
+            return Duration.parse(value);
+        } catch (RuntimeException ex) {
+            throw new IllegalArgumentException("Invalid duration: " + value, ex);
+        }
+    }
+
+    // Function that waits for a stage running in parallel, passing its failure on
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    // Function that reports what a stage did
+    private void summary(String stage, String detail, int count, long startNanos) {
+        log.printf("%-8s %-40s %10d events %8d ms%n", stage, detail, count, (System.nanoTime() - startNanos) / 1_000_000);
+    }
+
+    // A stage of the pipeline: its name and arguments
+    private record Stage(String name, List<String> args) {
+    }
+
+    // Thrown when the input holds a line that is not a valid event, naming the file and line
+    public static final class DataException extends RuntimeException {
+        DataException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * EventChange describes a single change made to the events of an EventManager, with the state
+ * of the event before and after the change. An added event has no before state and a removed
+ * event has no after state.
+ */
+public record EventChange(Kind kind, Event event, State before, State after) {
+
+    // The kinds of change an EventManager makes
+    // ARCHIVE means the event moved out of the in-memory set into the EventManager's archive
+    public enum Kind {
+        ADD, REMOVE, MODIFY, COMPLETE, ARCHIVE
+    }
+
+    // Method that returns the change that reverts this one
+    public EventChange inverse() {
+        Kind inverseKind = switch (kind) {
+            case ADD -> Kind.REMOVE;
+            case REMOVE, ARCHIVE -> Kind.ADD;
+            default -> Kind.MODIFY;
+        };
+        return new EventChange(inverseKind, event, after, before);
+    }
+
+    /**
+     * State holds the values of an event's fields at one point in time. Deadlines have no end
+     * time or location, so those are null for them.
+     */
+    public record State(String name, LocalDateTime dateTime, LocalDateTime endDateTime,
+                        String location, boolean complete) {
+
+        // Method that captures the current state of an event
+        public static State of(Event event) {
+            if (event instanceof Meeting meeting) {
+                return new State(meeting.getName(), meeting.getDateTime(), meeting.getEndDateTime(),
+                        meeting.getLocation(), meeting.isComplete());
+            }
+            return new State(event.getName(), event.getDateTime(), null, null, event.isComplete());
+        }
+
+        // Method that returns a copy of this state with a different completion state
+        public State withComplete(boolean complete) {
+            return new State(name, dateTime, endDateTime, location, complete);
+        }
+
+        // Method that returns a copy of this state moved to a new start time; a meeting keeps its duration
+        public State withDateTime(LocalDateTime newDateTime) {
+            LocalDateTime newEnd = endDateTime == null ? null
+                    : newDateTime.plus(Duration.between(dateTime, endDateTime));
+            return new State(name, newDateTime, newEnd, location, complete);
+        }
+
+        // Method that returns a copy of this state at a new location; only meetings have one
+        public State withLocation(String newLocation) {
+            return new State(name, dateTime, endDateTime, newLocation, complete);
+        }
+
+        /**
+         * Method that returns the current state with the fields that differ between the given
+         * original state and this one set as in this one, and every other field left as it is now.
+         */
+        public State changedFrom(State original, State current) {
+            return new State(
+                    Objects.equals(original.name, name) ? current.name : name,
+                    Objects.equals(original.dateTime, dateTime) ? current.dateTime : dateTime,
+                    Objects.equals(original.endDateTime, endDateTime) ? current.endDateTime : endDateTime,
+                    Objects.equals(original.location, location) ? current.location : location,
+                    original.complete == complete ? current.complete : complete);
+        }
+
+        // Method that writes this state into an event
+        void applyTo(Event event) {
+            event.setName(name);
+            event.setDateTime(dateTime);
+            if (event instanceof Meeting meeting) {
+                meeting.setEndDateTime(endDateTime);
+                meeting.setLocation(location);
+            }
+            event.setComplete(complete);
+        }
+
+        // Method that writes this state in a compact binary form
+        public void write(DataOutput out) throws IOException {
+            out.writeUTF(name);
+            out.writeUTF(dateTime.toString());
+            out.writeBoolean(endDateTime != null);
+            if (endDateTime != null) {
+                out.writeUTF(endDateTime.toString());
+                out.writeUTF(location == null ? "" : location);
+            }
+            out.writeBoolean(complete);
+        }
+
+        // Method that reads a state written by write()
+        public static State read(DataInput in) throws IOException {
+            String name = in.readUTF();
+            LocalDateTime dateTime = LocalDateTime.parse(in.readUTF());
+            LocalDateTime endDateTime = null;
+            String location = null;
+            if (in.readBoolean()) {
+                endDateTime = LocalDateTime.parse(in.readUTF());
+                location = in.readUTF();
+            }
+            return new State(name, dateTime, endDateTime, location, in.readBoolean());
+        }
+
+        // Method that creates a new event with this state, a Meeting if it has an end time
+        Event toEvent() {
+            Event event = endDateTime == null
+                    ? new Deadline(name, dateTime)
+                    : new Meeting(name, dateTime, endDateTime, location);
+            event.setComplete(complete);
+            return event;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * EventGenerator produces synthetic events for stress and performance testing. It controls
+ * how many events there are, the share of meetings versus deadlines, how their times are
+ * spread over a range, how many distinct meeting locations there are and the share of events
+ * that are already completed. The same settings and seed always produce the same events.
+ *
+ * Generators are immutable; derive new settings from defaults() with the with... methods.
+ */
+public record EventGenerator(int count, double meetingRatio, LocalDateTime from, LocalDateTime to,
+                             Distribution distribution, int locations, double completedRatio, long seed) {
+    // Possible meeting lengths, in minutes
+    private static final int[] MEETING_MINUTES = {15, 30, 45, 60, 90, 120};
+
+    /**
+     * Distribution describes how event times are spread over the range: evenly, bunched around
+     * the middle of the range, or evenly over working hours (Monday to Friday, 9:00 to 17:00).
+     */
+    public enum Distribution { UNIFORM, CLUSTERED, WORKING_HOURS }
+
+    public EventGenerator {
+        if (count < 0) {
+            throw new IllegalArgumentException("count must not be negative");
+        }
+        if (meetingRatio < 0 || meetingRatio > 1 || completedRatio < 0 || completedRatio > 1) {
+            throw new IllegalArgumentException("ratios must be between 0 and 1");
+        }
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("from must be before to");
+        }
+        if (locations < 1) {
+            throw new IllegalArgumentException("locations must be at least 1");
+        }
+        if (distribution == Distribution.WORKING_HOURS && !firstWorkingMinute(from).isBefore(to)) {
+            throw new IllegalArgumentException("the range has no working hours");
+        }
+    }
+
+    // Function that returns 1000 events, half of them meetings in 20 locations, spread over the year around now
+    public static EventGenerator defaults() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES);
+        return new EventGenerator(1000, 0.5, now.minusMonths(6), now.plusMonths(6),
+                Distribution.UNIFORM, 20, 0.2, 1);
+    }
+
+    // Method that returns a copy of this generator producing the given number of events
+    public EventGenerator withCount(int newCount) {
+        return new EventGenerator(newCount, meetingRatio, from, to, distribution, locations, completedRatio, seed);
+    }
+
+    // Method that returns a copy of this generator with the given share of meetings, between 0 and 1
+    public EventGenerator withMeetingRatio(double newMeetingRatio) {
+        return new EventGenerator(count, newMeetingRatio, from, to, distribution, locations, completedRatio, seed);
+    }
+
+    // Method that returns a copy of this generator placing events in [newFrom, newTo)
+    public EventGenerator withRange(LocalDateTime newFrom, LocalDateTime newTo) {
+        return new EventGenerator(count, meetingRatio, newFrom, newTo, distribution, locations, completedRatio, seed);
+    }
+
+    // Method that returns a copy of this generator spreading event times with the given distribution
+    public EventGenerator withDistribution(Distribution newDistribution) {
+        return new EventGenerator(count, meetingRatio, from, to, newDistribution, locations, completedRatio, seed);
+    }
+
+    // Method that returns a copy of this generator using the given number of distinct meeting locations
+    public EventGenerator withLocations(int newLocations) {
+        return new EventGenerator(count, meetingRatio, from, to, distribution, newLocations, completedRatio, seed);
+    }
+
+    // Method that returns a copy of this generator with the given share of completed events, between 0 and 1
+    public EventGenerator withCompletedRatio(double newCompletedRatio) {
+        return new EventGenerator(count, meetingRatio, from, to, distribution, locations, newCompletedRatio, seed);
+    }
+
+    // Method that returns a copy of this generator with a different random seed
+    public EventGenerator withSeed(long newSeed) {
+        return new EventGenerator(count, meetingRatio, from, to, distribution, locations, completedRatio, newSeed);
+    }
+
+    /**
+     * Method that returns the events as a lazy stream, so that even 10^7 events can be fed to an
+     * EventManager in batches without holding them all in a list first.
+     */
+    public Stream<Event> stream() {
+        Random random = new Random(seed);
+        int[] next = {0};
+        return Stream.generate(() -> create(next[0]++, random)).limit(count);
+    }
+
+    // Method that returns all the events in a list
+    public List<Event> generate() {
+        return stream().toList();
+    }
+
+    // Function that creates the n-th event
+    private Event create(int n, Random random) {
+        LocalDateTime dateTime = nextDateTime(random);
+        Event event;
+        if (random.nextDouble() < meetingRatio) {
+            int minutes = MEETING_MINUTES[random.nextInt(MEETING_MINUTES.length)];
+            event = new Meeting("Meeting " + n, dateTime, dateTime.plusMinutes(minutes),
+                    "Room " + random.nextInt(locations));
+        } else {
+            event = new Deadline("Deadline " + n, dateTime);
+        }
+        if (random.nextDouble() < completedRatio) {
+            event.complete();
+        }
+        return event;
+    }
+
+    // Function that picks an event time in the range according to the distribution, to the minute
+    private LocalDateTime nextDateTime(Random random) {
+        long rangeMinutes = Duration.between(from, to).toMinutes();
+        long offset = switch (distribution) {
+            case UNIFORM -> (long) (random.nextDouble() * rangeMinutes);
+            case CLUSTERED -> {
+                // Normal around the middle of the range with six standard deviations across it
+                double gaussian = rangeMinutes / 2.0 + random.nextGaussian() * rangeMinutes / 6.0;
+                yield (long) Math.max(0, Math.min(rangeMinutes - 1, gaussian));
+            }
+            case WORKING_HOURS -> {
+                // Draw minutes of the range until one falls in working hours, which keeps every
+                // working minute equally likely; about one draw in four succeeds
+                long minute;
+                do {
+                    minute = (long) (random.nextDouble() * rangeMinutes);
+                } while (!isWorkingMinute(from.plusMinutes(minute)));
+                yield minute;
+            }
+        };
+        return from.plusMinutes(offset);
+    }
+
+    // Function that checks whether a time falls in working hours, Monday to Friday from 9:00 to 17:00
+    private static boolean isWorkingMinute(LocalDateTime time) {
+        return time.getDayOfWeek() != DayOfWeek.SATURDAY && time.getDayOfWeek() != DayOfWeek.SUNDAY
+                && time.getHour() >= 9 && time.getHour() < 17;
+    }
+
+    // Function that returns the first time at or after the given one that falls in working hours
+    private static LocalDateTime firstWorkingMinute(LocalDateTime time) {
+        while (!isWorkingMinute(time)) {
+            LocalDateTime opening = time.truncatedTo(ChronoUnit.DAYS).plusHours(9);
+            time = time.isBefore(opening) ? opening : opening.plusDays(1);
+        }
+        return time;
+    }
+}
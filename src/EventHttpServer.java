@@ -0,0 +1,236 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * EventHttpServer is a small embedded HTTP API over an EventManager, bound to the loopback
+ * interface so other local tools can read and create events without the Swing UI.
+ * Each request runs on its own virtual thread. Bodies are JSON as written by EventJson.
+ *
+ *   GET    /events                      list all events
+ *   GET    /events?from=...&to=...      list events starting in [from, to), ISO date-times
+ *   GET    /events/{id}                 get one event
+ *   POST   /events                      add the event in the body, returns it with its ID
+ *   POST   /events/{id}/complete        complete an event
+ *   DELETE /events/{id}                 remove an event
+ *
+ * Lists walk the lock-free snapshot and capture the state of each matching event on its own,
+ * so every event is written with fields that agree even while the GUI keeps changing the same
+ * EventManager, and a narrow range never holds up those changes for the whole list.
+ */
+public class EventHttpServer {
+    private static final int BACKLOG = 1024;   // Pending connections the server socket will queue
+
+    // The JDK server writes the headers and body of a response separately, and with Nagle's algorithm
+    // each keep-alive response then waits on the client's delayed ACK, so turn it off unless configured
+    static {
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final EventManager eventManager;   // Reference to the EventManager
+    private final HttpServer server;           // Underlying JDK HTTP server
+    private final ExecutorService executor;    // Executor running each request on a virtual thread
+
+    // Constructs an EventHttpServer for the given EventManager on the given loopback port (0 picks a free port)
+    public EventHttpServer(EventManager eventManager, int port) throws IOException {
+        this.eventManager = eventManager;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), BACKLOG);
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext("/events", this::handle);
+    }
+
+    // Method that starts accepting requests
+    public void start() {
+        server.start();
+    }
+
+    // Method that stops the server, giving open exchanges up to a second to finish
+    public void stop() {
+        server.stop(1);
+        executor.close();
+    }
+
+    // Method that retrieves the port the server is listening on
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    // Function that routes a request to the matching endpoint and turns failures into error responses
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String path = exchange.getRequestURI().getPath();
+            String[] parts = path.replaceAll("^/+|/+$", "").split("/");
+            String method = exchange.getRequestMethod();
+
+            // The context matches any path starting with /events, e.g. /eventsXYZ, so check the segment
+            if (!parts[0].equals("events")) {
+                sendError(exchange, 404, "No endpoint for " + method + " " + path);
+            } else if (parts.length == 1 && method.equals("GET")) {
+                listEvents(exchange);
+            } else if (parts.length == 1 && method.equals("POST")) {
+                addEvent(exchange);
+            } else if (parts.length == 2 && method.equals("GET")) {
+                getEvent(exchange, parseId(parts[1]));
+            } else if (parts.length == 2 && method.equals("DELETE")) {
+                removeEvent(exchange, parseId(parts[1]));
+            } else if (parts.length == 3 && parts[2].equals("complete") && method.equals("POST")) {
+                completeEvent(exchange, parseId(parts[1]));
+            } else {
+                sendError(exchange, 404, "No endpoint for " + method + " " + path);
+            }
+        } catch (IllegalArgumentException | DateTimeParseException ex) {
+            sendError(exchange, 400, ex.getMessage());
+        } finally {
+            exchange.close();
+        }
+    }
+
+    // Function that streams the events, optionally restricted to the range given by the query string
+    private void listEvents(HttpExchange exchange) throws IOException {
+        Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+        LocalDateTime from = query.containsKey("from") ? LocalDateTime.parse(query.get("from")) : null;
+        LocalDateTime to = query.containsKey("to") ? LocalDateTime.parse(query.get("to")) : null;
+
+        // A zero length sends the body chunked, so events are written as they are found
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, 0);
+        try (Writer writer = new BufferedWriter(
+                new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8))) {
+            writer.write('[');
+            boolean first = true;
+            for (Event event : eventManager.getEvents()) {
+                if (!inRange(event.getDateTime(), from, to)) {
+                    continue;
+                }
+                // The event may have moved or gone since it was checked, so check its captured state again
+                EventChange.State state = eventManager.getState(event);
+                if (state == null || !inRange(state.dateTime(), from, to)) {
+                    continue;
+                }
+                if (!first) {
+                    writer.write(',');
+                }
+                writer.write(EventJson.toJson(event, state));
+                first = false;
+            }
+            writer.write(']');
+        }
+    }
+
+    // Function that checks whether a time is in [from, to), either bound being null for unbounded
+    private static boolean inRange(LocalDateTime dateTime, LocalDateTime from, LocalDateTime to) {
+        return (from == null || !dateTime.isBefore(from)) && (to == null || dateTime.isBefore(to));
+    }
+
+    // Function that sends a single event
+    private void getEvent(HttpExchange exchange, int id) throws IOException {
+        Event event = eventManager.findById(id);
+        EventChange.State state = event == null ? null : eventManager.getState(event);
+        if (state == null) {
+            sendError(exchange, 404, "No event with id " + id);
+        } else {
+            sendJson(exchange, 200, EventJson.toJson(event, state));
+        }
+    }
+
+    // Function that adds the event in the request body
+    private void addEvent(HttpExchange exchange) throws IOException {
+        String body;
+        try (InputStream in = exchange.getRequestBody()) {
+            body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        Event event = EventJson.fromJson(body);
+        eventManager.addEvent(event);
+        sendJson(exchange, 201, EventJson.toJson(event));
+    }
+
+    // Function that completes an event
+    private void completeEvent(HttpExchange exchange, int id) throws IOException {
+        Event event = eventManager.findById(id);
+        if (event == null) {
+            sendError(exchange, 404, "No event with id " + id);
+            return;
+        }
+        eventManager.completeEvent(event);
+        sendJson(exchange, 200, EventJson.toJson(event));
+    }
+
+    // Function that removes an event
+    private void removeEvent(HttpExchange exchange, int id) throws IOException {
+        Event removed = eventManager.removeById(id);
+        if (removed == null) {
+            sendError(exchange, 404, "No event with id " + id);
+        } else {
+            sendJson(exchange, 200, EventJson.toJson(removed));
+        }
+    }
+
+    // Function that parses an event ID from a path segment
+    private static int parseId(String segment) {
+        try {
+            return Integer.parseInt(segment);
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Invalid event id: " + segment);
+        }
+    }
+
+    // Function that parses a raw query string into a map from name to decoded value
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return query;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                query.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return query;
+    }
+
+    // Function that sends a JSON error body with the given status
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        StringBuilder json = new StringBuilder("{\"error\":");
+        EventJson.appendString(json, message);
+        sendJson(exchange, status, json.append('}').toString());
+    }
+
+    // Function that sends a complete JSON body with the given status
+    private static void sendJson(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    // Headless entry point: serves an empty EventManager on the given port (default 8080) without any UI
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8080;
+        EventHttpServer httpServer = new EventHttpServer(new EventManager(), port);
+        httpServer.start();
+        System.out.println("Event API listening on http://localhost:" + httpServer.getPort() + "/events");
+    }
+}
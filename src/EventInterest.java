@@ -0,0 +1,59 @@
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * EventInterest describes which changes a subscriber of an EventManager cares about. A change
+ * is of interest if the event matches before or after the change, so a subscriber also hears
+ * about events that move out of what it shows (e.g. one rescheduled to another month, or one
+ * completed while completed events are hidden).
+ *
+ * Every criterion is optional; a null criterion matches everything.
+ *
+ * @param from     earliest start time of interest, inclusive
+ * @param to       latest start time of interest, exclusive
+ * @param types    event classes of interest, e.g. only Meeting
+ * @param complete completion state of interest
+ */
+public record EventInterest(LocalDateTime from, LocalDateTime to, Set<Class<? extends Event>> types,
+                            Boolean complete) {
+
+    // Interest in every change
+    public static final EventInterest ALL = new EventInterest(null, null, null, null);
+
+    // Method that returns a copy of this interest restricted to events starting in [from, to)
+    public EventInterest between(LocalDateTime from, LocalDateTime to) {
+        return new EventInterest(from, to, types, complete);
+    }
+
+    // Method that returns a copy of this interest restricted to the given event classes
+    public EventInterest ofTypes(Set<Class<? extends Event>> types) {
+        return new EventInterest(from, to, Set.copyOf(types), complete);
+    }
+
+    // Method that returns a copy of this interest restricted to the given completion state, or not restricted if null
+    public EventInterest withComplete(Boolean complete) {
+        return new EventInterest(from, to, types, complete);
+    }
+
+    // Method that checks whether a change is of interest
+    public boolean matches(EventChange change) {
+        return matches(change.event(), change.before()) || matches(change.event(), change.after());
+    }
+
+    // Function that checks whether an event in the given state is of interest
+    private boolean matches(Event event, EventChange.State state) {
+        if (state == null) {
+            return false;
+        }
+        if (types != null && !types.contains(event.getClass())) {
+            return false;
+        }
+        if (complete != null && complete != state.complete()) {
+            return false;
+        }
+        if (from != null && state.dateTime().isBefore(from)) {
+            return false;
+        }
+        return to == null || state.dateTime().isBefore(to);
+    }
+}
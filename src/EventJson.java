@@ -0,0 +1,203 @@
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * EventJson converts events to and from JSON. Events are written as flat JSON objects,
+ * with date-times in ISO-8601 format (e.g. "2024-10-07T15:00"):
+ *
+ *   {"id":3,"type":"Meeting","name":"Team Meeting","start":"2024-10-07T15:00",
+ *    "end":"2024-10-07T16:00","location":"MCS 321","complete":false}
+ *
+ * Only flat objects with string, number, boolean and null values are understood, which is
+ * all an event needs.
+ */
+public final class EventJson {
+
+    private EventJson() {
+    }
+
+    // Method that writes an event as a JSON object
+    public static String toJson(Event event) {
+        return toJson(event, EventChange.State.of(event));
+    }
+
+    // Method that writes an event as a JSON object with the fields of a state captured earlier
+    public static String toJson(Event event, EventChange.State state) {
+        StringBuilder json = new StringBuilder(128);
+        json.append("{\"id\":").append(event.getId());
+        json.append(",\"type\":\"").append(event instanceof Meeting ? "Meeting" : "Deadline").append('"');
+        json.append(",\"name\":");
+        appendString(json, state.name());
+        json.append(",\"start\":\"").append(state.dateTime()).append('"');
+        if (event instanceof Meeting) {
+            json.append(",\"end\":\"").append(state.endDateTime()).append('"');
+            json.append(",\"location\":");
+            appendString(json, state.location());
+        }
+        json.append(",\"complete\":").append(state.complete());
+        return json.append('}').toString();
+    }
+
+    /**
+     * Method that creates a new event from a JSON object. The "type" field selects between
+     * a Deadline (the default) and a Meeting, which also needs "end" and "location".
+     * The "id" field is ignored; the EventManager assigns IDs.
+     */
+    public static Event fromJson(String json) {
+        Map<String, String> fields = parseObject(json);
+        String name = require(fields, "name");
+        LocalDateTime start = LocalDateTime.parse(require(fields, "start"));
+
+        Event event;
+        if ("Meeting".equals(fields.get("type"))) {
+            LocalDateTime end = LocalDateTime.parse(require(fields, "end"));
+            event = new Meeting(name, start, end, require(fields, "location"));
+        } else {
+            event = new Deadline(name, start);
+        }
+        if (Boolean.parseBoolean(fields.get("complete"))) {
+            event.complete();
+        }
+        return event;
+    }
+
+    // Function that retrieves a required field, throwing if it is missing
+    private static String require(Map<String, String> fields, String key) {
+        String value = fields.get(key);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing field: " + key);
+        }
+        return value;
+    }
+
+    // Function that appends a string as a quoted, escaped JSON string
+    static void appendString(StringBuilder json, String value) {
+        if (value == null) {
+            json.append("null");
+            return;
+        }
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                case '\n' -> json.append("\\n");
+                case '\r' -> json.append("\\r");
+                case '\t' -> json.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+                }
+            }
+        }
+        json.append('"');
+    }
+
+    /**
+     * Method that parses a flat JSON object into a map from key to value. String values are
+     * unescaped, other values are kept as their literal text and null values are left out.
+     */
+    public static Map<String, String> parseObject(String json) {
+        Map<String, String> fields = new LinkedHashMap<>();
+        int[] pos = {skipWhitespace(json, 0)};
+        expect(json, pos, '{');
+        pos[0] = skipWhitespace(json, pos[0]);
+        if (peek(json, pos[0]) == '}') {
+            return fields;
+        }
+        while (true) {
+            pos[0] = skipWhitespace(json, pos[0]);
+            String key = parseString(json, pos);
+            pos[0] = skipWhitespace(json, pos[0]);
+            expect(json, pos, ':');
+            pos[0] = skipWhitespace(json, pos[0]);
+            String value = peek(json, pos[0]) == '"' ? parseString(json, pos) : parseLiteral(json, pos);
+            if (value != null) {
+                fields.put(key, value);
+            }
+            pos[0] = skipWhitespace(json, pos[0]);
+            char c = peek(json, pos[0]);
+            pos[0]++;
+            if (c == '}') {
+                return fields;
+            }
+            if (c != ',') {
+                throw new IllegalArgumentException("Expected ',' or '}' at " + (pos[0] - 1));
+            }
+        }
+    }
+
+    // Function that parses a quoted string starting at pos[0], advancing pos[0] past it
+    private static String parseString(String json, int[] pos) {
+        expect(json, pos, '"');
+        StringBuilder value = new StringBuilder();
+        while (true) {
+            char c = peek(json, pos[0]++);
+            if (c == '"') {
+                return value.toString();
+            }
+            if (c != '\\') {
+                value.append(c);
+                continue;
+            }
+            char escaped = peek(json, pos[0]++);
+            switch (escaped) {
+                case 'n' -> value.append('\n');
+                case 'r' -> value.append('\r');
+                case 't' -> value.append('\t');
+                case 'b' -> value.append('\b');
+                case 'f' -> value.append('\f');
+                case 'u' -> {
+                    if (pos[0] + 4 > json.length()) {
+                        throw new IllegalArgumentException("Truncated escape at " + pos[0]);
+                    }
+                    value.append((char) Integer.parseInt(json.substring(pos[0], pos[0] + 4), 16));
+                    pos[0] += 4;
+                }
+                default -> value.append(escaped);
+            }
+        }
+    }
+
+    // Function that parses a number, boolean or null literal, returning null for null
+    private static String parseLiteral(String json, int[] pos) {
+        int begin = pos[0];
+        while (pos[0] < json.length() && ",}] \t\r\n".indexOf(json.charAt(pos[0])) < 0) {
+            pos[0]++;
+        }
+        String literal = json.substring(begin, pos[0]);
+        if (literal.isEmpty()) {
+            throw new IllegalArgumentException("Expected a value at " + begin);
+        }
+        return literal.equals("null") ? null : literal;
+    }
+
+    // Function that consumes the expected character, throwing if something else is found
+    private static void expect(String json, int[] pos, char expected) {
+        if (peek(json, pos[0]) != expected) {
+            throw new IllegalArgumentException("Expected '" + expected + "' at " + pos[0]);
+        }
+        pos[0]++;
+    }
+
+    // Function that returns the character at the given position, throwing at the end of the input
+    private static char peek(String json, int pos) {
+        if (pos >= json.length()) {
+            throw new IllegalArgumentException("Unexpected end of JSON");
+        }
+        return json.charAt(pos);
+    }
+
+    // Function that returns the position of the next non-whitespace character
+    private static int skipWhitespace(String json, int pos) {
+        while (pos < json.length() && Character.isWhitespace(json.charAt(pos))) {
+            pos++;
+        }
+        return pos;
+    }
+}
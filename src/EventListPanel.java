@@ -2,25 +2,40 @@ import javax.swing.*;
 import java.awt.BorderLayout;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 
 /**
  * EventListPanel is a JPanel that displays a list of events.
  * It provides sorting and filtering options and allows adding new events.
  * The panel updates dynamically when events are added, removed, or updated.
+ *
+ * With several calendars it shows the merged events of the selected ones, with a checkbox per
+ * calendar, and adds, undoes and redoes in the calendar chosen in the drop-down.
  */
 public class EventListPanel extends JPanel implements EventManager.EventListener {
-    private final EventManager eventManager;     // Reference to the EventManager
+    private final CalendarSet calendars;         // Reference to the calendars shown
+    private final JComboBox<String> targetCalendar; // ComboBox choosing the calendar to change, null with one calendar
     private final JPanel displayPanel;           // Panel to display the list of events
     private final JComboBox<String> sortDropDown;// ComboBox for sorting options
     private final JCheckBox filterCompleted;     // CheckBox to hide/show completed events
     private final JCheckBox filterDeadlines;     // CheckBox to hide/show deadlines
     private final JCheckBox filterMeetings;      // CheckBox to hide/show meetings
+    private final JCheckBox filterArchived;      // CheckBox to hide/show archived events, null without an archive
+    private final JButton undoButton;            // Button to undo the last change
+    private final JButton redoButton;            // Button to redo the last undone change
+    private final EventManager.EventListener undoListener = this::updateUndoButtons; // Same object every time, so it can be unsubscribed
 
     // Constructs an EventListPanel with the given EventManager
     public EventListPanel(EventManager eventManager) {
-        this.eventManager = eventManager;
+        this(CalendarSet.of(eventManager));
+    }
+
+    // Constructs an EventListPanel showing the merged events of the selected calendars
+    public EventListPanel(CalendarSet calendars) {
+        this.calendars = calendars;
 
         // Set the layout manager for this panel
         setLayout(new BorderLayout());
@@ -38,30 +53,64 @@ public class EventListPanel extends JPanel implements EventManager.EventListener
 
         // CheckBox to hide completed events
         filterCompleted = new JCheckBox("Hide Completed");
-        filterCompleted.addItemListener(e -> refreshDisplay()); // Refresh display on state change
+        filterCompleted.addItemListener(e -> filtersChanged()); // Refresh display on state change
         controlPanel.add(filterCompleted);
 
         // CheckBox to show/hide deadlines
         filterDeadlines = new JCheckBox("Show Deadlines");
         filterDeadlines.setSelected(true); // Default to showing deadlines
-        filterDeadlines.addItemListener(e -> refreshDisplay()); // Refresh display on state change
+        filterDeadlines.addItemListener(e -> filtersChanged()); // Refresh display on state change
         controlPanel.add(filterDeadlines);
 
         // CheckBox to show/hide meetings
         filterMeetings = new JCheckBox("Show Meetings");
         filterMeetings.setSelected(true); // Default to showing meetings
-        filterMeetings.addItemListener(e -> refreshDisplay()); // Refresh display on state change
+        filterMeetings.addItemListener(e -> filtersChanged()); // Refresh display on state change
         controlPanel.add(filterMeetings);
 
+        // CheckBox to show/hide archived events, only offered when events are being archived
+        if (calendars.hasArchive()) {
+            filterArchived = new JCheckBox("Show Archived");
+            filterArchived.addItemListener(e -> refreshDisplay()); // Refresh display on state change
+            controlPanel.add(filterArchived);
+        } else {
+            filterArchived = null;
+        }
+
+        // With several calendars, a CheckBox per calendar to show/hide it and a ComboBox choosing
+        // the calendar that events are added to and undone in
+        List<String> names = calendars.getNames();
+        if (names.size() > 1) {
+            for (String name : names) {
+                JCheckBox showCalendar = new JCheckBox(name, calendars.isSelected(name));
+                showCalendar.addItemListener(e -> calendars.setSelected(name, showCalendar.isSelected()));
+                controlPanel.add(showCalendar);
+            }
+            targetCalendar = new JComboBox<>(names.toArray(new String[0]));
+            targetCalendar.addActionListener(e -> updateUndoButtons());
+            controlPanel.add(targetCalendar);
+        } else {
+            targetCalendar = null;
+        }
+
         // Add Event Button
         JButton addEventButton = new JButton("Add Event");
         addEventButton.addActionListener(e -> {
             // Open the AddEventModal dialog when clicked
-            AddEventModel addEventModel = new AddEventModel(eventManager);
+            AddEventModel addEventModel = new AddEventModel(targetCalendar());
             addEventModel.setVisible(true);
         });
         controlPanel.add(addEventButton);
 
+        // Undo and Redo Buttons
+        undoButton = new JButton("Undo");
+        undoButton.addActionListener(e -> targetCalendar().undo());
+        controlPanel.add(undoButton);
+
+        redoButton = new JButton("Redo");
+        redoButton.addActionListener(e -> targetCalendar().redo());
+        controlPanel.add(redoButton);
+
         // Add the control panel to the top of the main panel
         add(controlPanel, BorderLayout.NORTH);
 
@@ -73,10 +122,66 @@ public class EventListPanel extends JPanel implements EventManager.EventListener
         JScrollPane scrollPane = new JScrollPane(displayPanel);
         add(scrollPane, BorderLayout.CENTER);
 
+        // Subscribe to changes of the events that pass the filters in every calendar, delivered on
+        // the EDT, and keep the undo/redo buttons up to date with every change
+        calendars.subscribe(this, currentInterest(), SwingUtilities::invokeLater);
+        calendars.subscribe(undoListener, EventInterest.ALL, SwingUtilities::invokeLater);
+
         // Initial population of the event list
         refreshDisplay();
     }
 
+    // Function that checks whether an event passes the filters selected by the user
+    private boolean passesFilters(Event e) {
+        // Skip event if it's completed and the 'Hide Completed' filter is selected
+        if (filterCompleted.isSelected() && e.isComplete()) {
+            return false;
+        }
+
+        // Skip event if it's a Deadline and the 'Show Deadlines' filter is not selected
+        if (!filterDeadlines.isSelected() && e instanceof Deadline) {
+            return false;
+        }
+
+        // Skip event if it's a Meeting and the 'Show Meetings' filter is not selected
+        return filterMeetings.isSelected() || !(e instanceof Meeting);
+    }
+
+    // Function that narrows the subscription to the new filters and refreshes the display
+    private void filtersChanged() {
+        calendars.setInterest(this, currentInterest());
+        refreshDisplay();
+    }
+
+    // Function that returns the changes that can affect the display with the current filters
+    private EventInterest currentInterest() {
+        Set<Class<? extends Event>> types = new HashSet<>();
+        if (filterDeadlines.isSelected()) {
+            types.add(Deadline.class);
+        }
+        if (filterMeetings.isSelected()) {
+            types.add(Meeting.class);
+        }
+        return EventInterest.ALL
+                .ofTypes(types)
+                .withComplete(filterCompleted.isSelected() ? Boolean.FALSE : null);
+    }
+
+    // Function that returns the calendar chosen for adding, undoing and redoing
+    private EventManager targetCalendar() {
+        if (targetCalendar == null) {
+            return calendars.getCalendars().get(0);
+        }
+        return calendars.getCalendar((String) targetCalendar.getSelectedItem());
+    }
+
+    // Function that only enables undo/redo when there is something to undo/redo in the chosen calendar
+    private void updateUndoButtons() {
+        EventManager target = targetCalendar();
+        undoButton.setEnabled(target.canUndo());
+        redoButton.setEnabled(target.canRedo());
+    }
+
     /**
      * Method that refreshes the display panel by reloading the list of events.
      * Applies sorting and filtering based on user selections.
@@ -85,50 +190,57 @@ public class EventListPanel extends JPanel implements EventManager.EventListener
         // Remove all components from the display panel
         displayPanel.removeAll();
 
-        // Get a copy of the current list of events
-        List<Event> events = new ArrayList<>(eventManager.getEvents());
-
-        // Apply sorting based on the selected option
+        // Pick the sort order based on the selected option
         String selected = (String) sortDropDown.getSelectedItem();
         Comparator<Event> comparator = switch (Objects.requireNonNull(selected)) {
-            case "Name Asc" -> Comparator.comparing(Event::getName);
-            case "Name Desc" -> Comparator.comparing(Event::getName).reversed();
-            case "Farthest First" -> Comparator.comparing(Event::getDateTime).reversed();
-            default -> Comparator.comparing(Event::getDateTime); // "Closest First"
+            case "Name Asc" -> CalendarSet.BY_NAME;
+            case "Name Desc" -> CalendarSet.BY_NAME_DESC;
+            case "Farthest First" -> CalendarSet.BY_DATE_TIME_DESC;
+            default -> CalendarSet.BY_DATE_TIME; // "Closest First"
         };
-        events.sort(comparator);
 
-        // Iterate over the sorted list of events
-        for (Event e : events) {
-            // Apply filters to each event
-
-            // Skip event if it's completed and the 'Hide Completed' filter is selected
-            if (filterCompleted.isSelected() && e.isComplete()) {
-                continue;
-            }
-
-            // Skip event if it's a Deadline and the 'Show Deadlines' filter is not selected
-            if (!filterDeadlines.isSelected() && e instanceof Deadline) {
-                continue;
+        // Collect the events that pass the filters from the selected calendars, already merged in order
+        List<Event> events = new ArrayList<>();
+        for (Event e : calendars.events(comparator)) {
+            if (passesFilters(e)) {
+                events.add(e);
             }
+        }
 
-            // Skip event if it's a Meeting and the 'Show Meetings' filter is not selected
-            if (!filterMeetings.isSelected() && e instanceof Meeting) {
-                continue;
+        // Only reach into the archive when asked to, its events are shown read-only
+        Set<Event> archived = new HashSet<>();
+        if (filterArchived != null && filterArchived.isSelected()) {
+            for (Event e : calendars.getArchivedEvents()) {
+                if (passesFilters(e)) {
+                    events.add(e);
+                    archived.add(e);
+                }
             }
+            events.sort(comparator);
+        }
 
-            // Create an EventPanel for the event and add it to the display panel
-            EventPanel eventPanel = new EventPanel(e, eventManager);
+        // Create an EventPanel for each event and add it to the display panel
+        for (Event e : events) {
+            boolean isArchived = archived.contains(e);
+            EventPanel eventPanel = new EventPanel(e, isArchived ? null : calendars.calendarOf(e), isArchived);
             displayPanel.add(eventPanel);
         }
 
+        updateUndoButtons();
+
         // Refresh the display panel to show the updated list
         displayPanel.revalidate();
         displayPanel.repaint();
     }
 
+    // Method that stops the panel from following the calendars, e.g. before it is thrown away
+    public void unsubscribe() {
+        calendars.unsubscribe(this);
+        calendars.unsubscribe(undoListener);
+    }
+
     /**
-     * Method that is called when the event list is updated.
+     * Method that is called on the EDT when events that pass the filters are updated.
      * Implements the EventManager.EventListener interface method.
      */
     @Override
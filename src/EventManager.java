@@ -1,50 +1,639 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
 
 /**
  * The EventManager class manages a list of events and notifies registered listeners
  * when changes occur to the event list. It provides methods to add and remove events,
  * retrieve the list of events, and manage event listeners.
+ *
+ * Every event added to the manager is given a stable, compact integer ID. The events are
+ * kept in an immutable EventSnapshot, and adding or removing events replaces it with a new
+ * version that shares structure with the old one, so readers can iterate a fixed set of events
+ * without copying it. Completing, rescheduling and relocating change the Event objects in place,
+ * though, so every snapshot shows their current fields; getStates() captures the fields of all
+ * events at one moment for readers that need them to agree. Edits are kept on an undo stack,
+ * which gives multi-level undo/redo for adding, removing, completing and rescheduling events.
+ *
+ * Bulk operations (completeWhere, removeWhere, rescheduleWhere, relocateWhere) split the
+ * snapshot across the fork-join pool, so they stay fast with millions of events, and are
+ * applied as one edit with one notification.
+ *
+ * The manager is safe to share between threads: mutations are serialized on the manager and
+ * reads never block. Listeners subscribe with an interest and are notified asynchronously,
+ * each through its own ordered queue, so a slow listener never holds up a change.
  */
 public class EventManager {
-    private final List<Event> events;             // List to store events
-    private final List<EventListener> listeners;  // List to store registered listeners
+    private static final int UNDO_LIMIT = 1000;   // Maximum number of edits kept for undo by default
+
+    // Executor for listeners that don't name one: each notification runs on a virtual thread
+    private static final Executor DEFAULT_EXECUTOR = runnable -> Thread.ofVirtual().start(runnable);
+
+    private volatile EventSnapshot events;        // Current version of the events
+    private final Map<Object, EventSubscription> subscriptions;  // Subscription of each registered listener
+    private final CopyOnWriteArrayList<ChangeListener> changeListeners;  // Listeners told exactly what changed, while locked
+    private final CopyOnWriteArrayList<DeliveryListener> deliveryListeners;  // Listeners told about every notification
+    private final Deque<List<EventChange>> undoStack;  // Changes of the edits that can be undone, most recent first
+    private final Deque<List<EventChange>> redoStack;  // Changes of undone edits that can be redone, most recent first
+    private final int undoLimit;                  // Maximum number of edits kept for undo, 0 to keep none
+    private int nextId = 0;                       // Next ID to hand out to a new event
+    private volatile EventArchive archive;        // Where events are moved out of memory, if tiering is enabled
 
     // Constructs an EventManager with empty lists for events and listeners.
     public EventManager() {
-        events = new ArrayList<>();
-        listeners = new ArrayList<>();
+        this(UNDO_LIMIT);
+    }
+
+    /**
+     * Constructs an EventManager that keeps at most undoLimit edits for undo. With 0 no history
+     * is kept at all, for batch jobs whose bulk edits would otherwise hold on to every change.
+     */
+    public EventManager(int undoLimit) {
+        if (undoLimit < 0) {
+            throw new IllegalArgumentException("undoLimit must not be negative");
+        }
+        this.undoLimit = undoLimit;
+        events = EventSnapshot.EMPTY;
+        subscriptions = new IdentityHashMap<>();
+        changeListeners = new CopyOnWriteArrayList<>();
+        deliveryListeners = new CopyOnWriteArrayList<>();
+        undoStack = new ArrayDeque<>();
+        redoStack = new ArrayDeque<>();
     }
 
     // Method that adds an event to the event list and notifies all registered listeners of the update
     public void addEvent(Event event) {
-        events.add(event);
-        notifyListeners();
+        addEvents(List.of(event));
+    }
+
+    /**
+     * Method that adds several events as a single edit, notifying listeners once. Used when
+     * events arrive in bulk, e.g. while loading, so views rebuild once per batch.
+     */
+    public void addEvents(Collection<? extends Event> newEvents) {
+        addAll(newEvents, true);
+    }
+
+    /**
+     * Method that adds events that were already stored elsewhere, e.g. while loading them at startup.
+     * Works like addEvents() but is not recorded for undo, since undoing it would unload the events.
+     */
+    public void loadEvents(Collection<? extends Event> storedEvents) {
+        addAll(storedEvents, false);
+    }
+
+    /**
+     * Function that adds events as a single change, optionally recording it for undo. An event
+     * can only be in one EventManager at a time, since its ID is only unique within the manager;
+     * adding an event that another manager holds throws an IllegalArgumentException and adds nothing.
+     */
+    private void addAll(Collection<? extends Event> newEvents, boolean undoable) {
+        synchronized (this) {
+            EventSnapshot version = events;
+            List<EventChange> changes = new ArrayList<>(newEvents.size());
+            for (Event event : newEvents) {
+                // Adding an event that is already managed here is a no-op
+                if (version.contains(event)) {
+                    continue;
+                }
+                if (!event.claim(this)) {
+                    for (EventChange change : changes) {
+                        change.event().release(this);
+                    }
+                    throw new IllegalArgumentException("\"" + event.getName() + "\" is already in another EventManager");
+                }
+
+                // Keep the event's ID if it is free (e.g. an event being re-added), otherwise hand out a new one
+                int id = event.getId();
+                if (id == Event.UNASSIGNED_ID || version.get(id) != null) {
+                    id = nextId++;
+                    event.setId(id);
+                } else {
+                    nextId = Math.max(nextId, id + 1);
+                }
+                version = version.with(event);
+                changes.add(new EventChange(EventChange.Kind.ADD, event, null, EventChange.State.of(event)));
+            }
+            if (!changes.isEmpty()) {
+                change(new Edit(version, changes), undoable);
+            }
+        }
     }
 
     // Method that removes an event from the event list and notifies all registered listeners of the update.
     public void removeEvent(Event event) {
-        events.remove(event);
-        notifyListeners();
+        if (findById(event.getId()) == event) {
+            removeById(event.getId());
+        }
+    }
+
+    /**
+     * Method that removes an event that was removed elsewhere, e.g. on another desktop.
+     * Works like removeEvent() but is not recorded for undo, so a local undo never brings it back.
+     */
+    public void unloadEvent(Event event) {
+        synchronized (this) {
+            if (findById(event.getId()) == event) {
+                remove(event.getId(), false);
+            }
+        }
+    }
+
+    // Method that removes the event with the given ID, returning it or null if there is no such event
+    public Event removeById(int id) {
+        return remove(id, true);
+    }
+
+    // Function that removes the event with the given ID as a single change, optionally recording it for undo
+    private Event remove(int id, boolean undoable) {
+        synchronized (this) {
+            Event removed = events.get(id);
+            if (removed != null) {
+                EventChange change = new EventChange(EventChange.Kind.REMOVE, removed, EventChange.State.of(removed), null);
+                change(new Edit(events.without(id), List.of(change)), undoable);
+            }
+            return removed;
+        }
+    }
+
+    // Method that marks an event as complete so that it can be undone
+    public void completeEvent(Event event) {
+        if (!event.isComplete()) {
+            updateEvent(event, EventChange.State.of(event).withComplete(true));
+        }
+    }
+
+    /**
+     * Method that moves an event to a new start time so that it can be undone.
+     * A meeting keeps its duration, so its end time moves along with the start.
+     */
+    public void rescheduleEvent(Event event, LocalDateTime newDateTime) {
+        updateEvent(event, EventChange.State.of(event).withDateTime(newDateTime));
+    }
+
+    /**
+     * Method that changes the fields of an event to the given state so that it can be undone.
+     * The change is reported as COMPLETE when it does nothing but complete the event.
+     */
+    public void updateEvent(Event event, EventChange.State state) {
+        updateEvents(Map.of(event, state));
+    }
+
+    /**
+     * Method that changes the fields of several events to the given states as a single edit,
+     * notifying listeners once, e.g. to replay a recorded bulk change.
+     */
+    public void updateEvents(Map<Event, EventChange.State> states) {
+        update(states, true);
+    }
+
+    /**
+     * Method that changes an event to a state it was given elsewhere, e.g. on another desktop.
+     * Works like updateEvent() but is not recorded for undo.
+     */
+    public void loadState(Event event, EventChange.State state) {
+        update(Map.of(event, state), false);
+    }
+
+    // Function that changes events to the given states as a single change, optionally recording it for undo
+    private void update(Map<Event, EventChange.State> states, boolean undoable) {
+        synchronized (this) {
+            List<EventChange> changes = new ArrayList<>(states.size());
+            for (Map.Entry<Event, EventChange.State> entry : states.entrySet()) {
+                EventChange.State before = EventChange.State.of(entry.getKey());
+                EventChange.State state = entry.getValue();
+                if (before.equals(state)) {
+                    continue;
+                }
+                EventChange.Kind kind = before.withComplete(true).equals(state) ? EventChange.Kind.COMPLETE
+                        : EventChange.Kind.MODIFY;
+                changes.add(new EventChange(kind, entry.getKey(), before, state));
+            }
+            if (!changes.isEmpty()) {
+                change(new Edit(events, changes), undoable);
+            }
+        }
+    }
+
+    /**
+     * Method that completes every event matching the predicate as a single edit, returning how
+     * many were completed. Like the other bulk operations below, the events are matched and
+     * changed in parallel, so the predicate must be safe to call from several threads; listeners
+     * are notified once for the whole edit and one undo reverts all of it.
+     */
+    public int completeWhere(Predicate<Event> predicate) {
+        return updateWhere(predicate, EventChange.Kind.COMPLETE,
+                state -> state.complete() ? state : state.withComplete(true));
+    }
+
+    // Method that moves every event matching the predicate by the given amount of time as a single edit
+    public int rescheduleWhere(Predicate<Event> predicate, Duration shift) {
+        return updateWhere(predicate, EventChange.Kind.MODIFY,
+                state -> state.withDateTime(state.dateTime().plus(shift)));
+    }
+
+    // Method that moves every meeting matching the predicate to the given location as a single edit
+    public int relocateWhere(Predicate<Event> predicate, String location) {
+        return updateWhere(event -> event instanceof Meeting && predicate.test(event), EventChange.Kind.MODIFY,
+                state -> state.withLocation(location));
+    }
+
+    // Method that removes every event matching the predicate as a single edit, returning how many were removed
+    public int removeWhere(Predicate<Event> predicate) {
+        synchronized (this) {
+            EventSnapshot.Removal removal = events.parallelRemove(predicate);
+            List<Event> removed = removal.removed();
+            if (removed.isEmpty()) {
+                return 0;
+            }
+            List<EventChange> changes = new ArrayList<>(removed.size());
+            for (Event event : removed) {
+                changes.add(new EventChange(EventChange.Kind.REMOVE, event, EventChange.State.of(event), null));
+            }
+            commit(new Edit(removal.snapshot(), changes));
+            return removed.size();
+        }
+    }
+
+    /**
+     * Function that works out the new state of every matching event in parallel, then writes them
+     * all and records them as one edit. Nothing is written until every event has been checked, so
+     * a predicate that throws leaves the events untouched.
+     */
+    private int updateWhere(Predicate<Event> predicate, EventChange.Kind kind,
+                            UnaryOperator<EventChange.State> update) {
+        synchronized (this) {
+            List<EventChange> changes = events.parallelCollect(event -> {
+                if (!predicate.test(event)) {
+                    return null;
+                }
+                EventChange.State before = EventChange.State.of(event);
+                EventChange.State after = update.apply(before);
+                if (before.equals(after)) {
+                    return null;
+                }
+                return new EventChange(kind, event, before, after);
+            });
+            if (changes.isEmpty()) {
+                return 0;
+            }
+            commit(new Edit(events, changes));
+            return changes.size();
+        }
+    }
+
+    // Method that undoes the most recent edit, returning false if there is nothing to undo
+    public boolean undo() {
+        synchronized (this) {
+            List<EventChange> changes = undoStack.pollFirst();
+            if (changes == null) {
+                return false;
+            }
+            replay(changes.reversed().stream().map(EventChange::inverse).toList());
+            redoStack.addFirst(changes);
+        }
+        return true;
+    }
+
+    // Method that redoes the most recently undone edit, returning false if there is nothing to redo
+    public boolean redo() {
+        synchronized (this) {
+            List<EventChange> changes = redoStack.pollFirst();
+            if (changes == null) {
+                return false;
+            }
+            replay(changes);
+            undoStack.addFirst(changes);
+        }
+        return true;
+    }
+
+    /**
+     * Function that applies the changes of an undone or redone edit to the current version rather
+     * than restoring the version the edit was made on, so that changes made since without undo,
+     * e.g. events loaded in the background or received from another desktop, are kept. Changes
+     * that no longer apply, such as removing an event that is already gone, are skipped, the
+     * before states are taken from the events as they are now, and only the fields an edit
+     * changed are written back, so e.g. undoing a reschedule keeps a rename made remotely since.
+     */
+    private void replay(List<EventChange> changes) {
+        EventSnapshot version = events;
+        List<EventChange> applied = new ArrayList<>(changes.size());
+        for (EventChange change : changes) {
+            Event event = change.event();
+            switch (change.kind()) {
+                case ADD -> {
+                    // The event may be back already, in another manager, or its ID taken since
+                    if (version.get(event.getId()) != null || !event.claim(this)) {
+                        continue;
+                    }
+                    version = version.with(event);
+                    applied.add(new EventChange(EventChange.Kind.ADD, event, null, EventChange.State.of(event)));
+                }
+                case REMOVE, ARCHIVE -> {
+                    if (version.get(event.getId()) != event) {
+                        continue;
+                    }
+                    version = version.without(event.getId());
+                    applied.add(new EventChange(change.kind(), event, EventChange.State.of(event), null));
+                }
+                default -> {
+                    // Only the fields the edit changed are set, so changes made since to other fields stay
+                    EventChange.State before = EventChange.State.of(event);
+                    EventChange.State after = change.after().changedFrom(change.before(), before);
+                    if (version.get(event.getId()) != event || before.equals(after)) {
+                        continue;
+                    }
+                    applied.add(new EventChange(change.kind(), event, before, after));
+                }
+            }
+        }
+        if (!applied.isEmpty()) {
+            apply(version, applied);
+        }
+    }
+
+    // Method that checks whether there is an edit to undo
+    public synchronized boolean canUndo() {
+        return !undoStack.isEmpty();
+    }
+
+    // Method that checks whether there is an edit to redo
+    public synchronized boolean canRedo() {
+        return !redoStack.isEmpty();
+    }
+
+    // Function that applies a new edit, recording it for undo only if it is undoable
+    private void change(Edit edit, boolean undoable) {
+        if (undoable) {
+            commit(edit);
+        } else {
+            apply(edit.after(), edit.changes());
+        }
+    }
+
+    // Function that installs the result of a new edit and records it for undo, clearing the redo history
+    private void commit(Edit edit) {
+        writeStates(edit.changes());
+        record(edit);
+    }
+
+    // Function that records an edit whose changes are already written into its events, and installs it
+    private void record(Edit edit) {
+        install(edit.after(), edit.changes());
+        if (undoLimit > 0) {
+            undoStack.addFirst(edit.changes());
+            if (undoStack.size() > undoLimit) {
+                undoStack.removeLast();
+            }
+        }
+        redoStack.clear();
+    }
+
+    // Function that writes the after state of each change into its event, installs the new version and reports the changes
+    private void apply(EventSnapshot version, List<EventChange> changes) {
+        writeStates(changes);
+        install(version, changes);
+    }
+
+    // Function that writes the after state of each modifying change into its event
+    private static void writeStates(List<EventChange> changes) {
+        for (EventChange change : changes) {
+            if (change.before() != null && change.after() != null) {
+                change.after().applyTo(change.event());
+            }
+        }
+    }
+
+    // Function that installs a new version and reports the changes that led to it
+    private void install(EventSnapshot version, List<EventChange> changes) {
+        events = version;
+        for (EventChange change : changes) {
+            switch (change.kind()) {
+                case ADD -> change.event().claim(this);
+                case REMOVE, ARCHIVE -> change.event().release(this);
+                default -> { }
+            }
+        }
+
+        // Listeners are told while the manager is still locked, so they see changes in order
+        for (ChangeListener listener : changeListeners) {
+            listener.eventsChanged(changes);
+        }
+        for (EventSubscription subscription : subscriptions.values()) {
+            subscription.offer(changes);
+        }
+    }
+
+    // Method that sets the archive that archiveWhere() moves events into and getEventsBetween() reads from
+    public synchronized void setArchive(EventArchive archive) {
+        this.archive = archive;
+    }
+
+    // Method that retrieves the archive, or null if tiering is not enabled
+    public EventArchive getArchive() {
+        return archive;
     }
 
-    // Method that retrieves the list of events managed by the EventManager
-    public List<Event> getEvents() {
+    /**
+     * Method that moves the events matching the predicate out of memory into the archive,
+     * returning how many were moved. Listeners see an ARCHIVE change for each of them.
+     * Undo/redo entries that touch a moved event are dropped, since replaying them would bring
+     * back events that now live in the archive; the rest of the history is kept.
+     */
+    public int archiveWhere(Predicate<Event> predicate) {
+        synchronized (this) {
+            if (archive == null) {
+                throw new IllegalStateException("No archive has been set");
+            }
+            List<Event> moving = new ArrayList<>();
+            for (Event event : events) {
+                if (predicate.test(event)) {
+                    moving.add(event);
+                }
+            }
+            if (moving.isEmpty()) {
+                return 0;
+            }
+            try {
+                archive.append(moving);
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Could not archive events", ex);
+            }
+
+            EventSnapshot version = events;
+            List<EventChange> changes = new ArrayList<>(moving.size());
+            for (Event event : moving) {
+                version = version.without(event.getId());
+                changes.add(new EventChange(EventChange.Kind.ARCHIVE, event, EventChange.State.of(event), null));
+            }
+            apply(version, changes);
+            Set<Event> moved = Collections.newSetFromMap(new IdentityHashMap<>());
+            moved.addAll(moving);
+            undoStack.removeIf(edit -> touches(edit, moved));
+            redoStack.removeIf(edit -> touches(edit, moved));
+            return moving.size();
+        }
+    }
+
+    // Function that checks whether the changes of an edit involve any of the given events
+    private static boolean touches(List<EventChange> changes, Set<Event> events) {
+        for (EventChange change : changes) {
+            if (events.contains(change.event())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Method that retrieves the events starting in [from, to), both those in memory and, if the
+     * range reaches into it, those in the archive. Only the archive partitions in range are loaded.
+     */
+    public List<Event> getEventsBetween(LocalDateTime from, LocalDateTime to) {
+        List<Event> result = new ArrayList<>();
+        for (Event event : events) {
+            if (!event.getDateTime().isBefore(from) && event.getDateTime().isBefore(to)) {
+                result.add(event);
+            }
+        }
+        EventArchive currentArchive = archive;
+        if (currentArchive != null) {
+            result.addAll(currentArchive.getEventsBetween(from, to));
+        }
+        return result;
+    }
+
+    // Method that retrieves the event with the given ID, or null if there is no such event
+    public Event findById(int id) {
+        return events.get(id);
+    }
+
+    /**
+     * Method that retrieves the current version of the events managed by the EventManager.
+     * Events added or removed later never show up in or disappear from the snapshot, but the
+     * events in it are the live objects, so later completions and reschedules do show up.
+     */
+    public EventSnapshot getEvents() {
         return events;
     }
 
-    // Method that registers an EventListener to receive notifications when the event list is updated
+    /**
+     * Method that captures every event together with its state at one moment, in ID order.
+     * Changes wait while the states are copied, so use it where all fields of all events must
+     * agree, e.g. a backup, rather than for every request or refresh of a view; getState()
+     * captures a single event.
+     */
+    public synchronized Map<Event, EventChange.State> getStates() {
+        Map<Event, EventChange.State> states = new LinkedHashMap<>(events.size() * 4 / 3 + 1);
+        for (Event event : events) {
+            states.put(event, EventChange.State.of(event));
+        }
+        return states;
+    }
+
+    /**
+     * Method that captures the fields of one event at one moment, or returns null if the manager
+     * no longer holds it. The lock is only held for that one event, so readers walking the
+     * snapshot can capture the events they need one at a time without holding up changes.
+     */
+    public synchronized EventChange.State getState(Event event) {
+        return events.get(event.getId()) == event ? EventChange.State.of(event) : null;
+    }
+
+    // Method that registers an EventListener to be told, on a background thread, whenever the event list is updated
     public void addListener(EventListener listener) {
-        listeners.add(listener);
+        subscribe(listener, EventInterest.ALL, DEFAULT_EXECUTOR);
+    }
+
+    /**
+     * Method that registers an EventListener to be told about changes matching the given interest.
+     * Notifications run on the given executor (e.g. SwingUtilities::invokeLater for a view); changes
+     * made while the listener is busy are combined into a single notification.
+     * Registering a listener that is already registered returns its existing subscription unchanged.
+     */
+    public EventSubscription subscribe(EventListener listener, EventInterest interest, Executor executor) {
+        return subscribe(listener, changes -> listener.eventsUpdated(), interest, executor);
+    }
+
+    /**
+     * Method that registers a ChangeListener to be told about changes matching the given interest,
+     * on the given executor. Like subscribe(EventListener, ...), registration is idempotent.
+     */
+    public EventSubscription subscribe(ChangeListener listener, EventInterest interest, Executor executor) {
+        return subscribe(listener, listener, interest, executor);
+    }
+
+    // Function that registers a subscription for a listener unless it already has one
+    private synchronized EventSubscription subscribe(Object listener, ChangeListener target,
+                                                     EventInterest interest, Executor executor) {
+        return subscriptions.computeIfAbsent(listener,
+                key -> new EventSubscription(key, target, interest, executor, deliveryListeners));
+    }
+
+    // Method that stops notifications to a listener, returning false if it was not registered
+    public synchronized boolean unsubscribe(Object listener) {
+        EventSubscription subscription = subscriptions.remove(listener);
+        if (subscription == null) {
+            return false;
+        }
+        subscription.cancel();
+        return true;
+    }
+
+    /**
+     * Method that registers a ChangeListener to be told about every change as it is made, on the
+     * thread making it. Only meant for quick bookkeeping such as the sync client's outbox;
+     * anything slower should subscribe() instead. Registering the same listener twice has no effect.
+     */
+    public void addChangeListener(ChangeListener listener) {
+        changeListeners.addIfAbsent(listener);
+    }
+
+    // Method that stops telling a ChangeListener about changes, returning false if it was not registered
+    public boolean removeChangeListener(ChangeListener listener) {
+        return changeListeners.remove(listener);
+    }
+
+    // Method that registers a DeliveryListener to be told about every notification of every subscription
+    public void addDeliveryListener(DeliveryListener listener) {
+        deliveryListeners.addIfAbsent(listener);
+    }
+
+    // Method that stops telling a DeliveryListener about notifications, returning false if it was not registered
+    public boolean removeDeliveryListener(DeliveryListener listener) {
+        return deliveryListeners.remove(listener);
     }
 
     // Method that Notifies all registered listeners that the event list has been updated.
-    public void notifyListeners() {
-        for (EventListener listener : listeners) {
-            listener.eventsUpdated();
+    public synchronized void notifyListeners() {
+        for (EventSubscription subscription : subscriptions.values()) {
+            subscription.requestRefresh();
         }
     }
 
+    /**
+     * An Edit is a new change: the version it produces and the changes made to the events. Only
+     * the changes are kept for undo; they are replayed forwards to redo it and inverted to undo it.
+     */
+    private record Edit(EventSnapshot after, List<EventChange> changes) {
+    }
+
     /**
      * The EventListener interface should be implemented by any class that wants to receive
      * notifications when the event list is updated. Implementing classes must define the
@@ -54,4 +643,28 @@ public class EventManager {
         // Called when the event list has been updated
         void eventsUpdated();
     }
+
+    /**
+     * The ChangeListener interface should be implemented by any class that needs to know
+     * exactly which events changed and how, such as a sync client. It is called while the
+     * EventManager is locked, so implementations must be quick and must not call back into it.
+     */
+    public interface ChangeListener {
+        // Called with the changes made by one edit, in the order they were made
+        void eventsChanged(List<EventChange> changes);
+    }
+
+    /**
+     * The DeliveryListener interface should be implemented by any class that observes how the
+     * subscriptions are notified, such as a recorder measuring how long views take. It is called
+     * on the subscription's executor, right after each notification, so it must be quick.
+     */
+    public interface DeliveryListener {
+        // Called after a subscription's listener was notified of the given number of changes, which took the given time
+        void delivered(EventSubscription subscription, int changes, long nanos);
+
+        // Called when a subscription changes its interest, e.g. when a view switches to another month
+        default void interestChanged(EventSubscription subscription) {
+        }
+    }
 }
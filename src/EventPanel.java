@@ -9,6 +9,11 @@ public class EventPanel extends JPanel {
     private final JLabel statusLabel;
 
     public EventPanel(Event event, EventManager eventManager) {
+        this(event, eventManager, false);
+    }
+
+    // Constructor for an event that may be archived; archived events are shown read-only
+    public EventPanel(Event event, EventManager eventManager, boolean archived) {
         this.event = event;
 
         // Use horizontal BoxLayout
@@ -52,20 +57,19 @@ public class EventPanel extends JPanel {
         add(Box.createHorizontalGlue());
 
         // Display status
-        statusLabel = new JLabel(event.isComplete() ? "Completed" : null);
+        statusLabel = new JLabel(event.isComplete() ? "Completed" : archived ? "Archived" : null);
         statusLabel.setFont(smallFont);
         add(statusLabel);
 
-        // Add 'Complete' button if the event is not yet complete
-        if (!event.isComplete()) {
+        // Add 'Complete' button if the event is not yet complete and can still be changed
+        if (!event.isComplete() && !archived) {
             completeButton = new JButton("Complete");
             completeButton.setFont(smallFont);
             completeButton.setMargin(new Insets(2, 4, 2, 4));
             completeButton.addActionListener(e -> {
-                event.complete();
                 statusLabel.setText("Complete");
                 completeButton.setEnabled(false);
-                eventManager.notifyListeners();
+                eventManager.completeEvent(event);
             });
             add(completeButton);
         }
@@ -1,47 +1,239 @@
 import javax.swing.*;
+import java.awt.BorderLayout;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
 
+/**
+ * EventPlanner is the entry point of the Swing application. The frame is shown as soon as
+ * possible: each tab's content is only built the first time the tab is selected, and the
+ * stored events are loaded in batches on a background thread while the views fill in.
+ * Time to first frame, time to interactive and load time are reported on standard output.
+ */
 public class EventPlanner {
-    public static void main(String[] args) {
-        // Create the frame
-        JFrame frame = new JFrame("Event Planner");
-        frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-        frame.setSize(800, 600);
+    // Command-line option naming the calendars to keep separately, e.g. --calendars=Team,Project,Personal
+    private static final String CALENDARS_OPTION = "--calendars=";
+
+    // Command-line option that also serves the events of the first calendar over HTTP, e.g. --http=8080
+    private static final String HTTP_OPTION = "--http=";
+
+    // Command-line option that loads events from a file of JSON objects, one per line, e.g. --load=events.jsonl
+    private static final String LOAD_OPTION = "--load=";
+
+    // Command-line option that moves completed and past events into an archive in a directory, e.g. --archive=archive
+    private static final String ARCHIVE_OPTION = "--archive=";
+
+    // Command-line option setting how many days after it ends an event is archived, e.g. --archive-horizon-days=30
+    private static final String HORIZON_OPTION = "--archive-horizon-days=";
+
+    // Command-line option that records the changes to the first calendar into a trace file for replay, e.g. --record=trace.bin
+    private static final String RECORD_OPTION = "--record=";
 
-        // Create EventManager
-        EventManager eventManager = new EventManager();
+    // Command-line option that leaves out the scheduling analytics and their Summary tab
+    private static final String NO_SUMMARY_OPTION = "--no-summary";
 
-        // Create panels
-        EventListPanel eventListPanel = new EventListPanel(eventManager);
-        CalendarDisplay calendarDisplay = new CalendarDisplay(eventManager);
+    // How often cold events are moved into the archive
+    private static final Duration TIERING_PERIOD = Duration.ofMinutes(10);
 
-        // Register panels as listeners
-        eventManager.addListener(eventListPanel);
-        eventManager.addListener(calendarDisplay);
+    // Number of events handed to the EventManager at once while loading
+    private static final int LOAD_BATCH_SIZE = 1000;
 
-        // Add default events
-        addDefaultEvents(eventManager);
+    // Time the application started, all startup timings are measured from here
+    private static final long START_NANOS = System.nanoTime();
 
-        // Create tabbed pane
+    public static void main(String[] args) throws IOException {
+        // Read the command-line options
+        List<String> calendarNames = List.of("Calendar");
+        Integer httpPort = null;
+        Path loadPath = null;
+        Path archivePath = null;
+        int horizonDays = 30;
+        Path recordPath = null;
+        boolean summary = true;
+        for (String arg : args) {
+            if (arg.startsWith(CALENDARS_OPTION)) {
+                calendarNames = List.of(arg.substring(CALENDARS_OPTION.length()).split(","));
+            } else if (arg.startsWith(HTTP_OPTION)) {
+                httpPort = Integer.parseInt(arg.substring(HTTP_OPTION.length()));
+            } else if (arg.startsWith(LOAD_OPTION)) {
+                loadPath = Path.of(arg.substring(LOAD_OPTION.length()));
+            } else if (arg.startsWith(ARCHIVE_OPTION)) {
+                archivePath = Path.of(arg.substring(ARCHIVE_OPTION.length()));
+            } else if (arg.startsWith(HORIZON_OPTION)) {
+                horizonDays = Integer.parseInt(arg.substring(HORIZON_OPTION.length()));
+            } else if (arg.startsWith(RECORD_OPTION)) {
+                recordPath = Path.of(arg.substring(RECORD_OPTION.length()));
+            } else if (arg.equals(NO_SUMMARY_OPTION)) {
+                summary = false;
+            }
+        }
+
+        // Create an EventManager per calendar; the first one receives the loaded events
+        CalendarSet calendars = new CalendarSet();
+        for (String name : calendarNames) {
+            calendars.addCalendar(name);
+        }
+        EventManager eventManager = calendars.getCalendars().get(0);
+
+        // Optionally serve the first calendar over HTTP for other local tools
+        if (httpPort != null) {
+            new EventHttpServer(eventManager, httpPort).start();
+        }
+
+        // Optionally record every change to the first calendar, finishing the trace when the application exits
+        if (recordPath != null) {
+            MutationRecorder recorder = new MutationRecorder(eventManager, recordPath);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    recorder.close();
+                } catch (IOException ex) {
+                    ex.printStackTrace();
+                }
+            }, "mutation-recorder-close"));
+        }
+
+        // Each calendar archives into its own directory when there are several
+        List<EventTiering> tierings = new ArrayList<>();
+        if (archivePath != null) {
+            for (String name : calendarNames) {
+                EventManager calendar = calendars.getCalendar(name);
+                calendar.setArchive(new EventArchive(calendarNames.size() == 1 ? archivePath : archivePath.resolve(name)));
+                tierings.add(new EventTiering(calendar, Duration.ofDays(horizonDays)));
+            }
+        }
+
+        // Keep the scheduling totals of all calendars up to date from the start, so they follow the events as they load
+        EventAnalytics analytics = null;
+        if (summary) {
+            analytics = new EventAnalytics();
+            for (EventManager calendar : calendars.getCalendars()) {
+                analytics.attach(calendar);
+            }
+        }
+
+        // Build and show the frame on the EDT
+        EventAnalytics shownAnalytics = analytics;
+        SwingUtilities.invokeLater(() -> createAndShowFrame(calendars, shownAnalytics));
+
+        // Load the events in the background, the views render each batch as it arrives
+        // and once everything is loaded, start moving cold events into the archive
+        Path source = loadPath;
+        Thread loader = new Thread(() -> {
+            loadEvents(eventManager, source);
+            for (EventTiering tiering : tierings) {
+                tiering.start(TIERING_PERIOD);
+            }
+        }, "event-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    // Function that builds the frame with empty tabs and shows it, with a Summary tab if there are analytics
+    private static void createAndShowFrame(CalendarSet calendars, EventAnalytics analytics) {
+        // Create the frame
+        JFrame frame = new JFrame("Event Planner");
+        frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        frame.setSize(800, 600);
+
+        // Create tabbed pane whose tabs are built on first selection
         JTabbedPane tabbedPane = new JTabbedPane();
-        tabbedPane.addTab("Event List", eventListPanel);
-        tabbedPane.addTab("Calendar", calendarDisplay);
+        Map<JPanel, Supplier<JComponent>> unbuiltTabs = new HashMap<>();
+        // The panels subscribe themselves to the changes they display
+        addLazyTab(tabbedPane, unbuiltTabs, "Event List", () -> new EventListPanel(calendars));
+        addLazyTab(tabbedPane, unbuiltTabs, "Calendar", () -> new CalendarDisplay(calendars));
+        if (analytics != null) {
+            addLazyTab(tabbedPane, unbuiltTabs, "Summary", () -> new SummaryPanel(calendars, analytics));
+        }
+        tabbedPane.addChangeListener(e -> buildSelectedTab(tabbedPane, unbuiltTabs));
 
         // Add to frame
         frame.add(tabbedPane);
 
+        // Report the first frame once the window is open, then build the first tab
+        frame.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowOpened(WindowEvent e) {
+                report("first frame");
+                buildSelectedTab(tabbedPane, unbuiltTabs);
+                SwingUtilities.invokeLater(() -> report("interactive"));
+            }
+        });
+
         // Set visible
         frame.setVisible(true);
     }
 
+    // Function that adds a tab holding an empty placeholder, remembering how to build its content
+    private static void addLazyTab(JTabbedPane tabbedPane, Map<JPanel, Supplier<JComponent>> unbuiltTabs,
+                                   String title, Supplier<JComponent> builder) {
+        JPanel placeholder = new JPanel(new BorderLayout());
+        unbuiltTabs.put(placeholder, builder);
+        tabbedPane.addTab(title, placeholder);
+    }
+
+    // Function that builds the content of the selected tab if it has not been built yet
+    private static void buildSelectedTab(JTabbedPane tabbedPane, Map<JPanel, Supplier<JComponent>> unbuiltTabs) {
+        if (!(tabbedPane.getSelectedComponent() instanceof JPanel placeholder)) {
+            return;
+        }
+        Supplier<JComponent> builder = unbuiltTabs.remove(placeholder);
+        if (builder != null) {
+            placeholder.add(builder.get(), BorderLayout.CENTER);
+            placeholder.revalidate();
+        }
+    }
+
+    // Function that loads the stored events, or the default events if there is no file, in batches
+    private static void loadEvents(EventManager eventManager, Path source) {
+        if (source == null) {
+            addDefaultEvents(eventManager);
+            report("loaded " + eventManager.getEvents().size() + " events");
+            return;
+        }
+
+        try (BufferedReader reader = Files.newBufferedReader(source)) {
+            List<Event> batch = new ArrayList<>(LOAD_BATCH_SIZE);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                batch.add(EventJson.fromJson(line));
+                if (batch.size() == LOAD_BATCH_SIZE) {
+                    eventManager.loadEvents(batch);
+                    batch = new ArrayList<>(LOAD_BATCH_SIZE);
+                }
+            }
+            eventManager.loadEvents(batch);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not load events from " + source, ex);
+        }
+        report("loaded " + eventManager.getEvents().size() + " events");
+    }
+
+    // Function that prints how long after startup a milestone was reached
+    private static void report(String milestone) {
+        System.out.printf("Startup: %s after %d ms%n", milestone, (System.nanoTime() - START_NANOS) / 1_000_000);
+    }
+
     static void addDefaultEvents(EventManager eventManager) {
         // Create some default events
         Event deadline = new Deadline("Project Deadline", LocalDateTime.now().plusDays(2));
         Event meeting = new Meeting("Team Meeting", LocalDateTime.now().plusHours(1),
                 LocalDateTime.now().plusHours(2), "Conference Room");
 
-        // Add to the events list
-        eventManager.addEvent(deadline);
-        eventManager.addEvent(meeting);
+        // Load them like events read from a file, so there is nothing to undo at startup
+        eventManager.loadEvents(List.of(deadline, meeting));
     }
 }
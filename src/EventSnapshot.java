@@ -0,0 +1,343 @@
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * EventSnapshot is an immutable, structurally shared collection of events keyed by event ID.
+ * Events are stored in a 32-way radix trie indexed by ID, so a lookup walks at most a handful
+ * of levels and adding or removing an event copies only the path to its leaf. Every mutation
+ * returns a new snapshot that shares all untouched nodes with the old one, which makes it cheap
+ * to keep old versions around or to hand a reader a set of events that does not change under it.
+ * The events themselves are the live, mutable objects; only which events are present is fixed.
+ *
+ * Iteration visits events in ID order, which is the order they were first added.
+ */
+public final class EventSnapshot extends AbstractCollection<Event> {
+    private static final int BITS = 5;                 // Bits of the ID consumed per trie level
+    private static final int WIDTH = 1 << BITS;        // Number of children per trie node
+    private static final int MASK = WIDTH - 1;         // Mask selecting a child index
+
+    // The empty snapshot, every EventManager starts from this one
+    public static final EventSnapshot EMPTY = new EventSnapshot(null, 0, 0);
+
+    private final Object[] root;  // Root node, inner nodes hold Object[] children and leaves hold events
+    private final int shift;      // Number of ID bits below the root level
+    private final int size;       // Number of events in this snapshot
+
+    private EventSnapshot(Object[] root, int shift, int size) {
+        this.root = root;
+        this.shift = shift;
+        this.size = size;
+    }
+
+    // Method that retrieves the event with the given ID, or null if it is not in this snapshot
+    public Event get(int id) {
+        if (root == null || id < 0 || (id >>> shift) >= WIDTH) {
+            return null;
+        }
+        Object[] node = root;
+        for (int level = shift; level > 0; level -= BITS) {
+            node = (Object[]) node[(id >>> level) & MASK];
+            if (node == null) {
+                return null;
+            }
+        }
+        return (Event) node[id & MASK];
+    }
+
+    // Method that returns a snapshot containing the given event, replacing any event with the same ID
+    public EventSnapshot with(Event event) {
+        int id = event.getId();
+        if (id < 0) {
+            throw new IllegalArgumentException("Event has no ID: " + event.getName());
+        }
+
+        // Grow the trie upwards until the ID fits below the root
+        Object[] newRoot = root == null ? new Object[WIDTH] : root;
+        int newShift = root == null ? 0 : shift;
+        while ((id >>> newShift) >= WIDTH) {
+            Object[] grown = new Object[WIDTH];
+            grown[0] = newRoot;
+            newRoot = grown;
+            newShift += BITS;
+        }
+
+        int newSize = get(id) == null ? size + 1 : size;
+        return new EventSnapshot(assoc(newRoot, newShift, id, event), newShift, newSize);
+    }
+
+    // Method that returns a snapshot without the event with the given ID
+    public EventSnapshot without(int id) {
+        if (get(id) == null) {
+            return this;
+        }
+        if (size == 1) {
+            return EMPTY;
+        }
+        return new EventSnapshot(dissoc(root, shift, id), shift, size - 1);
+    }
+
+    // Function that copies the path to the given ID and stores the event at its leaf
+    private static Object[] assoc(Object[] node, int level, int id, Event event) {
+        Object[] copy = node == null ? new Object[WIDTH] : node.clone();
+        int index = (id >>> level) & MASK;
+        if (level == 0) {
+            copy[index] = event;
+        } else {
+            copy[index] = assoc((Object[]) copy[index], level - BITS, id, event);
+        }
+        return copy;
+    }
+
+    // Function that copies the path to the given ID and clears its leaf, pruning nodes that become empty
+    private static Object[] dissoc(Object[] node, int level, int id) {
+        Object[] copy = node.clone();
+        int index = (id >>> level) & MASK;
+        if (level == 0) {
+            copy[index] = null;
+        } else {
+            copy[index] = dissoc((Object[]) copy[index], level - BITS, id);
+        }
+        for (Object child : copy) {
+            if (child != null) {
+                return copy;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Method that applies a function to every event and returns the non-null results in ID order.
+     * The trie is split into subtrees that are processed in parallel on the common fork-join pool,
+     * so the function must be safe to call from several threads at once.
+     */
+    public <R> List<R> parallelCollect(Function<Event, R> function) {
+        if (root == null) {
+            return new ArrayList<>();
+        }
+        return ForkJoinPool.commonPool().invoke(new CollectTask<>(root, shift, function));
+    }
+
+    /**
+     * Method that returns the snapshot without the events matching the predicate, together with
+     * the removed events in ID order. Like parallelCollect(), subtrees are pruned in parallel.
+     */
+    public Removal parallelRemove(Predicate<Event> predicate) {
+        if (root == null) {
+            return new Removal(this, new ArrayList<>());
+        }
+        PruneTask.Pruned pruned = ForkJoinPool.commonPool().invoke(new PruneTask(root, shift, predicate));
+        if (pruned.removed().isEmpty()) {
+            return new Removal(this, pruned.removed());
+        }
+        EventSnapshot remaining = pruned.node() == null ? EMPTY
+                : new EventSnapshot(pruned.node(), shift, size - pruned.removed().size());
+        return new Removal(remaining, pruned.removed());
+    }
+
+    // The result of parallelRemove(): the remaining snapshot and the events that were removed
+    public record Removal(EventSnapshot snapshot, List<Event> removed) {
+    }
+
+    // Fork-join task collecting the results of a function over one subtree
+    private static final class CollectTask<R> extends RecursiveTask<List<R>> {
+        private final Object[] node;               // Root of the subtree
+        private final int level;                   // Shift of the subtree's root level
+        private final Function<Event, R> function; // Function applied to each event
+
+        CollectTask(Object[] node, int level, Function<Event, R> function) {
+            this.node = node;
+            this.level = level;
+            this.function = function;
+        }
+
+        @Override
+        protected List<R> compute() {
+            List<R> results = new ArrayList<>();
+            if (level <= BITS) {
+                collect(node, level, results);
+                return results;
+            }
+            List<CollectTask<R>> tasks = new ArrayList<>();
+            for (Object child : node) {
+                if (child != null) {
+                    tasks.add(new CollectTask<>((Object[]) child, level - BITS, function));
+                }
+            }
+            for (CollectTask<R> task : invokeAll(tasks)) {
+                results.addAll(task.join());
+            }
+            return results;
+        }
+
+        // Function that walks a small subtree on the current thread
+        private void collect(Object[] current, int currentLevel, List<R> results) {
+            for (Object child : current) {
+                if (child == null) {
+                    continue;
+                }
+                if (currentLevel == 0) {
+                    R result = function.apply((Event) child);
+                    if (result != null) {
+                        results.add(result);
+                    }
+                } else {
+                    collect((Object[]) child, currentLevel - BITS, results);
+                }
+            }
+        }
+    }
+
+    // Fork-join task copying one subtree without the events matching a predicate
+    private static final class PruneTask extends RecursiveTask<PruneTask.Pruned> {
+        private final Object[] node;                // Root of the subtree
+        private final int level;                    // Shift of the subtree's root level
+        private final Predicate<Event> predicate;   // Selects the events to remove
+
+        // The pruned subtree, null if nothing is left, and the events removed from it
+        record Pruned(Object[] node, List<Event> removed) {
+        }
+
+        PruneTask(Object[] node, int level, Predicate<Event> predicate) {
+            this.node = node;
+            this.level = level;
+            this.predicate = predicate;
+        }
+
+        @Override
+        protected Pruned compute() {
+            List<Event> removed = new ArrayList<>();
+            if (level <= BITS) {
+                return new Pruned(prune(node, level, predicate, removed), removed);
+            }
+            List<PruneTask> tasks = new ArrayList<>();
+            for (Object child : node) {
+                if (child != null) {
+                    tasks.add(new PruneTask((Object[]) child, level - BITS, predicate));
+                }
+            }
+            invokeAll(tasks);
+            Object[] copy = null;
+            int next = 0;
+            for (int i = 0; i < WIDTH; i++) {
+                if (node[i] == null) {
+                    continue;
+                }
+                Pruned child = tasks.get(next++).join();
+                if (!child.removed().isEmpty()) {
+                    copy = copy == null ? node.clone() : copy;
+                    copy[i] = child.node();
+                    removed.addAll(child.removed());
+                }
+            }
+            return new Pruned(copy == null ? node : emptyToNull(copy), removed);
+        }
+
+        // Function that prunes a small subtree on the current thread, returning the node itself if nothing matched
+        private static Object[] prune(Object[] node, int level, Predicate<Event> predicate, List<Event> removed) {
+            Object[] copy = null;
+            for (int i = 0; i < WIDTH; i++) {
+                Object child = node[i];
+                if (child == null) {
+                    continue;
+                }
+                Object replacement;
+                if (level == 0) {
+                    Event event = (Event) child;
+                    if (!predicate.test(event)) {
+                        continue;
+                    }
+                    removed.add(event);
+                    replacement = null;
+                } else {
+                    replacement = prune((Object[]) child, level - BITS, predicate, removed);
+                    if (replacement == child) {
+                        continue;
+                    }
+                }
+                copy = copy == null ? node.clone() : copy;
+                copy[i] = replacement;
+            }
+            return copy == null ? node : emptyToNull(copy);
+        }
+
+        // Function that returns null for a node without children, so empty nodes are pruned
+        private static Object[] emptyToNull(Object[] node) {
+            for (Object child : node) {
+                if (child != null) {
+                    return node;
+                }
+            }
+            return null;
+        }
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof Event event && get(event.getId()) == event;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Iterator<Event> iterator() {
+        return new SnapshotIterator();
+    }
+
+    // Depth-first iterator over the trie that skips empty slots
+    private final class SnapshotIterator implements Iterator<Event> {
+        private final Object[][] nodes;  // Node being visited at each depth
+        private final int[] positions;   // Next child index to visit at each depth
+        private int depth;               // Current depth, -1 once iteration is finished
+        private Event next;              // Next event to return, or null if not yet found
+
+        SnapshotIterator() {
+            int levels = shift / BITS + 1;
+            nodes = new Object[levels][];
+            positions = new int[levels];
+            nodes[0] = root;
+            depth = root == null ? -1 : 0;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && depth >= 0) {
+                if (positions[depth] == WIDTH) {
+                    depth--;
+                    continue;
+                }
+                Object child = nodes[depth][positions[depth]++];
+                if (child == null) {
+                    continue;
+                }
+                if (depth == nodes.length - 1) {
+                    next = (Event) child;
+                } else {
+                    depth++;
+                    nodes[depth] = (Object[]) child;
+                    positions[depth] = 0;
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public Event next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Event result = next;
+            next = null;
+            return result;
+        }
+    }
+}
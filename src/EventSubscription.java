@@ -0,0 +1,127 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * EventSubscription is one subscriber's registration with an EventManager. The manager offers
+ * it every change while it holds its lock; the subscription keeps the ones that match its
+ * interest in its own queue and delivers them on its own executor, so a slow subscriber never
+ * delays the manager or the other subscribers.
+ *
+ * At most one delivery runs at a time and changes are delivered in the order they were made.
+ * Changes that pile up while a delivery is running are delivered together in the next one.
+ */
+public final class EventSubscription {
+    private final Object subscriber;                   // The listener this subscription was made for
+    private final EventManager.ChangeListener target;  // Receives the delivered changes
+    private final Executor executor;                   // Runs deliveries
+    private final Queue<EventChange> queue;            // Matching changes waiting to be delivered
+    private final AtomicBoolean scheduled;             // Whether a delivery is queued or running
+    private final AtomicBoolean refreshRequested;      // Whether a delivery was asked for without changes
+    private final List<EventManager.DeliveryListener> deliveryListeners; // Told about every delivery, shared with the manager
+    private volatile EventInterest interest;           // Changes the subscriber cares about
+    private volatile boolean active = true;            // Cleared when the subscriber unsubscribes
+
+    EventSubscription(Object subscriber, EventManager.ChangeListener target, EventInterest interest,
+                      Executor executor, List<EventManager.DeliveryListener> deliveryListeners) {
+        this.subscriber = subscriber;
+        this.target = target;
+        this.interest = interest;
+        this.executor = executor;
+        this.queue = new ConcurrentLinkedQueue<>();
+        this.scheduled = new AtomicBoolean();
+        this.refreshRequested = new AtomicBoolean();
+        this.deliveryListeners = deliveryListeners;
+    }
+
+    // Method that retrieves the listener this subscription was made for
+    public Object getSubscriber() {
+        return subscriber;
+    }
+
+    // Method that retrieves the changes the subscriber cares about
+    public EventInterest getInterest() {
+        return interest;
+    }
+
+    // Method that changes which changes the subscriber cares about, e.g. when a view shows another month
+    public void setInterest(EventInterest interest) {
+        this.interest = interest;
+        for (EventManager.DeliveryListener listener : deliveryListeners) {
+            listener.interestChanged(this);
+        }
+    }
+
+    // Method that checks whether the subscription is still receiving changes
+    public boolean isActive() {
+        return active;
+    }
+
+    // Method that stops deliveries, changes already queued are dropped
+    void cancel() {
+        active = false;
+        queue.clear();
+    }
+
+    // Method that queues the changes of interest and schedules a delivery if any were queued
+    void offer(List<EventChange> changes) {
+        if (!active) {
+            return;
+        }
+        EventInterest current = interest;
+        boolean queued = false;
+        for (EventChange change : changes) {
+            if (current.matches(change)) {
+                queue.add(change);
+                queued = true;
+            }
+        }
+        if (queued) {
+            schedule();
+        }
+    }
+
+    // Method that schedules a delivery even though nothing changed, for EventManager.notifyListeners()
+    void requestRefresh() {
+        if (active) {
+            refreshRequested.set(true);
+            schedule();
+        }
+    }
+
+    // Function that starts a delivery unless one is already queued or running
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            executor.execute(this::deliver);
+        }
+    }
+
+    // Function that delivers everything queued, repeating while more arrives before it finishes
+    private void deliver() {
+        do {
+            List<EventChange> batch = new ArrayList<>();
+            EventChange change;
+            while ((change = queue.poll()) != null) {
+                batch.add(change);
+            }
+            boolean refresh = refreshRequested.getAndSet(false);
+            if (active && (refresh || !batch.isEmpty())) {
+                long start = System.nanoTime();
+                try {
+                    target.eventsChanged(batch);
+                } catch (RuntimeException ex) {
+                    // A failing subscriber must not stop later deliveries
+                    ex.printStackTrace();
+                }
+                long nanos = System.nanoTime() - start;
+                for (EventManager.DeliveryListener listener : deliveryListeners) {
+                    listener.delivered(this, batch.size(), nanos);
+                }
+            }
+            scheduled.set(false);
+        } while ((!queue.isEmpty() || refreshRequested.get()) && scheduled.compareAndSet(false, true));
+    }
+}
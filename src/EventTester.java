@@ -1,6 +1,32 @@
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 public class EventTester {
@@ -49,6 +75,18 @@ public class EventTester {
         System.out.println("Testing implements Comparable..." + (testComparingEvents()? "passed" : "failed"));
         System.out.println("Testing get meeting duration..." + (testMeetingDuration()? "passed" : "failed"));
         System.out.println("Testing implements Completable..." + (testCompletable()? "passed" : "failed"));
+        System.out.println("Testing event IDs..." + (testEventIds()? "passed" : "failed"));
+        System.out.println("Testing undo and redo..." + (testUndoRedo()? "passed" : "failed"));
+        System.out.println("Testing HTTP API..." + (testHttpServer()? "passed" : "failed"));
+        System.out.println("Testing sync between clients..." + (testSync()? "passed" : "failed"));
+        System.out.println("Testing subscriptions..." + (testSubscriptions()? "passed" : "failed"));
+        System.out.println("Testing archiving..." + (testArchive()? "passed" : "failed"));
+        System.out.println("Testing bulk operations..." + (testBulkOperations()? "passed" : "failed"));
+        System.out.println("Testing analytics..." + (testAnalytics()? "passed" : "failed"));
+        System.out.println("Testing event generator..." + (testEventGenerator()? "passed" : "failed"));
+        System.out.println("Testing merged calendars..." + (testCalendarSet()? "passed" : "failed"));
+        System.out.println("Testing batch pipeline..." + (testBatch()? "passed" : "failed"));
+        System.out.println("Testing record and replay..." + (testRecordReplay()? "passed" : "failed"));
     }
 
     public static boolean testGetters() {
@@ -122,4 +160,639 @@ public class EventTester {
         // return results
         return deadlinesPass && meetingsPass;
     }
+
+    public static boolean testEventIds() {
+        EventManager manager = new EventManager();
+        Deadline first = new Deadline("First", deadline);
+        Deadline second = new Deadline("Second", deadline);
+        Deadline third = new Deadline("Third", deadline);
+        manager.addEvent(first);
+        manager.addEvent(second);
+        manager.addEvent(third);
+
+        // remove from the middle, the other events keep their IDs
+        int thirdId = third.getId();
+        boolean removed = manager.removeById(second.getId()) == second;
+        boolean idsStable = third.getId() == thirdId
+                && manager.findById(thirdId) == third
+                && manager.findById(first.getId()) == first
+                && manager.findById(second.getId()) == null;
+
+        // re-adding a removed event keeps its ID
+        int secondId = second.getId();
+        manager.addEvent(second);
+        boolean reAdded = second.getId() == secondId && manager.getEvents().size() == 3;
+
+        // another manager cannot take an event this one manages, so its ID stays valid here
+        EventManager other = new EventManager();
+        other.addEvent(new Deadline("Other", deadline));
+        boolean rejected = false;
+        try {
+            other.addEvents(List.of(new Deadline("Another", deadline), first));
+        } catch (IllegalArgumentException e) {
+            rejected = true;
+        }
+        boolean kept = rejected && other.getEvents().size() == 1 && manager.findById(first.getId()) == first;
+
+        // once removed here, it can move to the other manager
+        manager.removeEvent(first);
+        other.addEvent(first);
+        boolean moved = other.findById(first.getId()) == first && other.getEvents().size() == 2;
+
+        return removed && idsStable && reAdded && kept && moved;
+    }
+
+    public static boolean testUndoRedo() {
+        EventManager manager = new EventManager();
+        Meeting meeting = new Meeting("Meeting", start, end, location);
+        Deadline deadline = new Deadline("Deadline", EventTester.deadline);
+        manager.addEvent(meeting);
+        manager.addEvent(deadline);
+        EventSnapshot beforeChanges = manager.getEvents();
+        Map<Event, EventChange.State> statesBefore = manager.getStates();
+
+        // complete, reschedule and remove, then undo all three
+        manager.completeEvent(deadline);
+        manager.rescheduleEvent(meeting, start.plusDays(INCREMENT));
+        manager.removeEvent(deadline);
+        boolean changed = manager.getEvents().size() == 1
+                && meeting.getEndDateTime().equals(end.plusDays(INCREMENT));
+        manager.undo();
+        manager.undo();
+        manager.undo();
+        boolean undone = manager.getEvents().size() == 2
+                && !deadline.isComplete()
+                && meeting.getDateTime().equals(start)
+                && meeting.getEndDateTime().equals(end);
+
+        // redo the completion; the old snapshot still holds the same events, which show the completion,
+        // while the captured states keep the fields from before
+        manager.redo();
+        boolean redone = deadline.isComplete() && manager.canRedo() && beforeChanges.size() == 2
+                && beforeChanges.contains(deadline) && !statesBefore.get(deadline).complete();
+
+
+        // undo only reverts edits; events loaded in between without undo stay
+        EventManager loading = new EventManager();
+        loading.addEvent(new Deadline("Added", EventTester.deadline));
+        loading.loadEvents(List.of(new Deadline("Loaded", EventTester.deadline), new Deadline("Also Loaded", EventTester.deadline)));
+        loading.undo();
+        boolean loadKept = loading.getEvents().size() == 2
+                && loading.getEvents().stream().noneMatch(e -> e.getName().equals("Added"));
+        loading.redo();
+        boolean loadRedone = loading.getEvents().size() == 3;
+
+        // the default events shown at startup are loaded too, so there is nothing to undo yet
+        EventManager startup = new EventManager();
+        EventPlanner.addDefaultEvents(startup);
+        boolean startupLoaded = startup.getEvents().size() == 2 && !startup.canUndo();
+
+        return changed && undone && redone && loadKept && loadRedone && startupLoaded;
+    }
+
+    public static boolean testHttpServer() {
+        EventHttpServer server = null;
+        try {
+            EventManager manager = new EventManager();
+            manager.addEvent(new Deadline("Existing Deadline", deadline));
+            server = new EventHttpServer(manager, 0);
+            server.start();
+            HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            String base = "http://localhost:" + server.getPort();
+
+            // add, then find it in the full list, in a range and by ID, complete it and remove it
+            HttpResponse<String> added = send(client, "POST", base + "/events",
+                    EventJson.toJson(new Meeting("Posted Meeting", start, end, location)));
+            String id = EventJson.parseObject(added.body()).get("id");
+            boolean listed = send(client, "GET", base + "/events", null).body().contains("Posted Meeting");
+            String range = send(client, "GET", base + "/events?from=" + start.minusDays(1) + "&to=" + start.plusDays(1), null).body();
+            boolean ranged = range.contains("Posted Meeting") && !range.contains("Existing Deadline");
+            boolean found = send(client, "GET", base + "/events/" + id, null).statusCode() == 200;
+            HttpResponse<String> completed = send(client, "POST", base + "/events/" + id + "/complete", null);
+            boolean complete = completed.statusCode() == 200
+                    && EventJson.parseObject(completed.body()).get("complete").equals("true")
+                    && manager.findById(Integer.parseInt(id)).isComplete();
+            boolean removed = send(client, "DELETE", base + "/events/" + id, null).statusCode() == 200
+                    && manager.getEvents().size() == 1;
+            boolean roundTrip = added.statusCode() == 201 && listed && ranged && found && complete && removed;
+
+            // unknown paths and IDs are 404, malformed IDs, dates and bodies are 400
+            boolean errors = send(client, "GET", base + "/events/" + id, null).statusCode() == 404
+                    && send(client, "DELETE", base + "/events/" + id, null).statusCode() == 404
+                    && send(client, "GET", base + "/eventsXYZ", null).statusCode() == 404
+                    && send(client, "PUT", base + "/events", null).statusCode() == 404
+                    && send(client, "GET", base + "/events/abc", null).statusCode() == 400
+                    && send(client, "GET", base + "/events?from=yesterday", null).statusCode() == 400
+                    && send(client, "POST", base + "/events", "{\"start\":\"2024-10-07T15:00\"}").statusCode() == 400;
+
+            return roundTrip && errors;
+        } catch (IOException | InterruptedException e) {
+            return false;
+        } finally {
+            if (server != null) {
+                server.stop();
+            }
+        }
+    }
+
+    public static boolean testSync() {
+        try (SyncServer server = new SyncServer(0)) {
+            server.start();
+            List<EventManager> managers = List.of(new EventManager(), new EventManager(), new EventManager());
+            List<SyncClient> clients = List.of(
+                    new SyncClient(managers.get(0), "a", "localhost", server.getPort()),
+                    new SyncClient(managers.get(1), "b", "localhost", server.getPort()),
+                    new SyncClient(managers.get(2), "c", "localhost", server.getPort()));
+            for (SyncClient client : clients) {
+                client.connect();
+            }
+
+            // an event added on one desktop shows up on all of them, and so does its completion
+            Meeting meeting = new Meeting("Synced Meeting", start, end, location);
+            managers.get(0).addEvent(meeting);
+            boolean added = eventually(() -> managers.stream().allMatch(m -> m.getEvents().size() == 1));
+            Event remoteCopy = managers.get(1).getEvents().iterator().next();
+            managers.get(1).completeEvent(remoteCopy);
+            boolean completed = eventually(() -> meeting.isComplete());
+
+            // a desktop that was offline catches up when it reconnects
+            clients.get(2).disconnect();
+            managers.get(0).addEvent(new Deadline("Added While Offline", deadline));
+            managers.get(0).removeEvent(meeting);
+            clients.get(2).connect();
+            boolean caughtUp = eventually(() -> managers.get(2).getEvents().size() == 1
+                    && managers.get(2).getEvents().iterator().next().getName().equals("Added While Offline"));
+
+            // remote changes are not local edits: they cannot be undone here and keep the local redo history
+            Event offline = managers.get(1).getEvents().iterator().next();
+            managers.get(1).rescheduleEvent(offline, deadline.plusDays(1));
+            managers.get(1).undo();
+            managers.get(0).addEvent(new Deadline("Shared Deadline", deadline));
+            boolean notUndoable = eventually(() -> managers.stream().allMatch(m -> m.getEvents().size() == 2))
+                    && managers.get(1).canRedo() && !managers.get(2).canUndo();
+
+            // two desktops rename the same event while apart: the later rename wins everywhere
+            clients.get(1).disconnect();
+            rename(managers.get(0), "Shared Deadline", "Renamed on A");
+            Thread.sleep(20);
+            rename(managers.get(1), "Shared Deadline", "Renamed on B");
+            clients.get(1).connect();
+            boolean lastWriterWins = eventually(() -> managers.stream().allMatch(m ->
+                    m.getEvents().stream().anyMatch(e -> e.getName().equals("Renamed on B"))
+                    && m.getEvents().stream().noneMatch(e -> e.getName().equals("Renamed on A"))));
+
+            // undoing a local reschedule only moves the event back, keeping a rename made remotely since
+            Event shared = managers.get(2).getEvents().stream()
+                    .filter(e -> e.getName().equals("Renamed on B")).findFirst().orElseThrow();
+            managers.get(2).rescheduleEvent(shared, deadline.plusDays(3));
+            boolean moved = eventually(() -> managers.stream().allMatch(m -> m.getEvents().stream()
+                    .anyMatch(e -> e.getDateTime().equals(deadline.plusDays(3)))));
+            rename(managers.get(0), "Renamed on B", "Renamed Remotely");
+            boolean renamed = moved && eventually(() -> shared.getName().equals("Renamed Remotely"));
+            managers.get(2).undo();
+            boolean onlyMovedBack = renamed && eventually(() -> managers.stream().allMatch(m -> m.getEvents().stream()
+                    .anyMatch(e -> e.getName().equals("Renamed Remotely") && e.getDateTime().equals(deadline))));
+
+            // a peer sending a broken frame is dropped, while the server keeps serving everyone else
+            sendRaw(server.getPort(), -5);
+            sendRaw(server.getPort(), 99);
+            clients.get(2).disconnect();
+            clients.get(2).connect();
+            managers.get(0).addEvent(new Deadline("After Bad Frames", deadline));
+            boolean survived = eventually(() -> managers.stream().allMatch(m -> m.getEvents().stream()
+                    .anyMatch(e -> e.getName().equals("After Bad Frames"))));
+
+            for (SyncClient client : clients) {
+                client.close();
+            }
+            return added && completed && caughtUp && notUndoable && lastWriterWins && onlyMovedBack && survived;
+        } catch (IOException | InterruptedException e) {
+            return false;
+        }
+    }
+
+    public static boolean testSubscriptions() {
+        EventManager manager = new EventManager();
+        AtomicInteger meetingUpdates = new AtomicInteger();
+        AtomicInteger allUpdates = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        // registering the same listener twice gives one subscription
+        EventManager.EventListener meetingListener = meetingUpdates::incrementAndGet;
+        EventSubscription first = manager.subscribe(meetingListener,
+                EventInterest.ALL.ofTypes(Set.of(Meeting.class)), Runnable::run);
+        EventSubscription second = manager.subscribe(meetingListener, EventInterest.ALL, Runnable::run);
+
+        // a listener that blocks does not hold up changes or the other listener
+        manager.addListener(() -> {
+            allUpdates.incrementAndGet();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        manager.addEvent(new Deadline("Not a meeting", deadline));
+        boolean blocked = eventually(() -> allUpdates.get() == 1);
+        manager.addEvent(new Meeting("Meeting", start, end, location));
+        manager.addEvent(new Meeting("Another Meeting", start, end, location));
+        boolean notDelayed = meetingUpdates.get() == 2 && manager.getEvents().size() == 3;
+        release.countDown();
+
+        // the blocked listener gets the changes made while it was busy in one more notification
+        boolean caughtUp = eventually(() -> allUpdates.get() == 2);
+        return first == second && blocked && notDelayed && caughtUp;
+    }
+
+    public static boolean testArchive() {
+        try {
+            Path directory = Files.createTempDirectory("event-archive");
+            EventManager manager = new EventManager();
+            manager.setArchive(new EventArchive(directory));
+
+            LocalDateTime now = LocalDateTime.now();
+            Deadline old = new Deadline("Old Deadline", now.minusYears(2));
+            Deadline done = new Deadline("Done Deadline", now.plusDays(1));
+            Meeting upcoming = new Meeting("Upcoming Meeting", now.plusDays(2), now.plusDays(2).plusHours(1), location);
+            done.complete();
+            manager.addEvent(old);
+            manager.addEvent(done);
+            manager.addEvent(upcoming);
+            rename(manager, "Upcoming Meeting", "Upcoming Review");
+
+            // completed and long past events leave memory, and only the edits of those events leave the undo history
+            int archived = new EventTiering(manager, Duration.ofDays(30)).runOnce();
+            boolean hotSetSmall = archived == 2 && manager.getEvents().size() == 1;
+            boolean historyKept = manager.undo() && upcoming.getName().equals("Upcoming Meeting")
+                    && manager.undo() && manager.getEvents().isEmpty()
+                    && !manager.canUndo();
+
+            // a range that reaches into the archive finds them again, also after reopening it
+            List<Event> oldMonth = manager.getEventsBetween(now.minusYears(2).minusDays(1), now.minusYears(2).plusDays(1));
+            List<Event> reopened = new EventArchive(directory).getEventsBetween(now.minusYears(3), now.plusYears(1));
+            return hotSetSmall && historyKept
+                    && oldMonth.size() == 1 && oldMonth.get(0).getName().equals("Old Deadline")
+                    && reopened.size() == 2;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    public static boolean testBulkOperations() {
+        EventManager manager = new EventManager();
+        List<Event> many = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            many.add(i % 2 == 0
+                    ? new Deadline("Deadline " + i, deadline.plusHours(i))
+                    : new Meeting("Meeting " + i, start.plusHours(i), end.plusHours(i), location));
+        }
+        manager.addEvents(many);
+        AtomicInteger notifications = new AtomicInteger();
+        manager.subscribe((EventManager.ChangeListener) changes -> notifications.incrementAndGet(),
+                EventInterest.ALL, Runnable::run);
+
+        // each bulk operation counts what it changed and notifies once
+        int completed = manager.completeWhere(e -> e instanceof Deadline);
+        int completedAgain = manager.completeWhere(e -> e instanceof Deadline);
+        int shifted = manager.rescheduleWhere(e -> e instanceof Meeting, Duration.ofDays(1));
+        int relocated = manager.relocateWhere(e -> true, locationAlt);
+        Meeting meeting = (Meeting) many.get(1);
+        boolean applied = completed == 2500 && completedAgain == 0 && shifted == 2500 && relocated == 2500
+                && many.get(0).isComplete()
+                && meeting.getDateTime().equals(start.plusHours(1).plusDays(1))
+                && meeting.getDuration().equals(Duration.ofHours(1))
+                && meeting.getLocation().equals(locationAlt)
+                && notifications.get() == 3;
+
+        int removed = manager.removeWhere(Event::isComplete);
+        boolean removedAll = removed == 2500 && manager.getEvents().size() == 2500
+                && manager.findById(many.get(0).getId()) == null && manager.findById(meeting.getId()) == meeting;
+
+        // one undo brings back every removed event
+        manager.undo();
+        boolean undone = manager.getEvents().size() == 5000 && manager.findById(many.get(0).getId()) == many.get(0);
+
+        // a predicate that fails partway changes nothing, not even the events it already accepted
+        Event failing = many.get(4001);
+        int notified = notifications.get();
+        boolean threw = false;
+        try {
+            manager.rescheduleWhere(e -> {
+                if (e == failing) {
+                    throw new IllegalStateException("Bad event");
+                }
+                return true;
+            }, Duration.ofDays(1));
+        } catch (IllegalStateException ex) {
+            threw = true;
+        }
+        boolean untouched = threw && notifications.get() == notified
+                && meeting.getDateTime().equals(start.plusHours(1).plusDays(1))
+                && many.get(0).getDateTime().equals(deadline)
+                && manager.canRedo();
+        return applied && removedAll && undone && untouched;
+    }
+
+    public static boolean testAnalytics() {
+        EventManager manager = new EventManager();
+        Meeting meeting = new Meeting("Meeting", start, end, location);
+        Deadline early = new Deadline("Early Deadline", deadline.minusDays(3));
+        Deadline late = new Deadline("Late Deadline", deadline);
+        manager.addEvent(meeting);
+        EventAnalytics analytics = new EventAnalytics(manager);
+        manager.addEvents(List.of(early, late));
+
+        // totals follow adds, completions, reschedules and undo
+        boolean added = analytics.getMeetingTime(start.toLocalDate()).equals(Duration.ofHours(1))
+                && analytics.getMeetingTime(location).equals(Duration.ofHours(1))
+                && analytics.getDeadlineCounts(YearMonth.from(deadline)).open() == 2
+                && analytics.getOverdueCount(deadline.minusDays(1)) == 1
+                && analytics.getOverdueCount(deadline.plusDays(1)) == 2;
+
+        manager.completeEvent(early);
+        manager.rescheduleEvent(meeting, start.plusWeeks(1));
+        boolean changed = analytics.getDeadlineCounts(YearMonth.from(deadline)).completed() == 1
+                && analytics.getOverdueCount(deadline.plusDays(1)) == 1
+                && analytics.getMeetingTime(start.toLocalDate()).isZero()
+                && analytics.getMeetingTime(start.plusWeeks(1).toLocalDate()).equals(Duration.ofHours(1));
+
+        manager.undo();
+        manager.undo();
+        manager.removeEvent(late);
+        boolean undone = analytics.getMeetingTime(start.toLocalDate()).equals(Duration.ofHours(1))
+                && analytics.getDeadlineCounts(YearMonth.from(deadline)).equals(new EventAnalytics.DeadlineCounts(1, 0))
+                && analytics.getOverdueCount(deadline.minusDays(1)) == 1;
+        return added && changed && undone;
+    }
+
+    public static boolean testEventGenerator() {
+        EventGenerator generator = EventGenerator.defaults()
+                .withCount(10_000)
+                .withMeetingRatio(0.8)
+                .withLocations(5)
+                .withCompletedRatio(0.25)
+                .withRange(start, start.plusMonths(3))
+                .withDistribution(EventGenerator.Distribution.WORKING_HOURS);
+        List<Event> generated = generator.generate();
+
+        // the mix, locations, completion share and times follow the settings, and the same seed repeats itself
+        long meetingCount = generated.stream().filter(e -> e instanceof Meeting).count();
+        long completedCount = generated.stream().filter(Event::isComplete).count();
+        long locationCount = generated.stream().filter(e -> e instanceof Meeting)
+                .map(e -> ((Meeting) e).getLocation()).distinct().count();
+        boolean inRange = generated.stream().allMatch(e -> !e.getDateTime().isBefore(start)
+                && e.getDateTime().isBefore(start.plusMonths(3))
+                && e.getDateTime().getDayOfWeek().getValue() <= 5
+                && e.getDateTime().getHour() >= 9 && e.getDateTime().getHour() < 17);
+        boolean repeatable = generator.generate().get(1234).getName().equals(generated.get(1234).getName())
+                && generator.generate().get(1234).getDateTime().equals(generated.get(1234).getDateTime());
+
+        // a range starting on a Saturday evening still only gets working hours, spread evenly over the weekdays
+        LocalDateTime saturdayEvening = LocalDateTime.of(2024, 10, 12, 18, 0);
+        List<Event> fromWeekend = generator.withRange(saturdayEvening, saturdayEvening.plusWeeks(4)).generate();
+        Map<DayOfWeek, Long> perDay = fromWeekend.stream()
+                .collect(Collectors.groupingBy(e -> e.getDateTime().getDayOfWeek(), Collectors.counting()));
+        boolean weekdaysEven = perDay.size() == 5 && perDay.values().stream().allMatch(n -> Math.abs(n - 2000) < 200)
+                && fromWeekend.stream().allMatch(e -> e.getDateTime().isAfter(saturdayEvening)
+                        && e.getDateTime().getHour() >= 9 && e.getDateTime().getHour() < 17);
+        return generated.size() == 10_000
+                && Math.abs(meetingCount - 8000) < 300
+                && Math.abs(completedCount - 2500) < 300
+                && locationCount == 5
+                && inRange && repeatable && weekdaysEven;
+    }
+
+    public static boolean testCalendarSet() {
+        CalendarSet calendars = new CalendarSet();
+        EventManager team = calendars.addCalendar("Team");
+        EventManager personal = calendars.addCalendar("Personal");
+        EventGenerator generator = EventGenerator.defaults().withCount(2000);
+        team.addEvents(generator.withSeed(1).generate());
+        personal.addEvents(generator.withSeed(2).generate());
+
+        // the merged view is in order and holds the events of both calendars
+        List<Event> merged = new ArrayList<>();
+        calendars.events(CalendarSet.BY_DATE_TIME).forEach(merged::add);
+        List<Event> expected = new ArrayList<>(team.getEvents());
+        expected.addAll(personal.getEvents());
+        expected.sort(CalendarSet.BY_DATE_TIME);
+        boolean mergedInOrder = merged.size() == 4000
+                && merged.stream().map(Event::getDateTime).toList()
+                        .equals(expected.stream().map(Event::getDateTime).toList());
+
+        // hiding a calendar removes its events, and a reschedule shows up in the merged order
+        calendars.setSelected("Personal", false);
+        Event moved = team.getEvents().iterator().next();
+        team.rescheduleEvent(moved, LocalDateTime.of(1999, 1, 1, 0, 0));
+        Event first = calendars.events(CalendarSet.BY_DATE_TIME).iterator().next();
+        boolean toggled = calendars.size() == 2000 && first == moved;
+
+        // a range query only returns events in the range, in time order, from selected calendars
+        calendars.setSelected("Personal", true);
+        LocalDateTime from = LocalDateTime.now().withDayOfMonth(1);
+        List<Event> month = calendars.getEventsBetween(from, from.plusMonths(1));
+        boolean ranged = !month.isEmpty()
+                && month.stream().allMatch(e -> !e.getDateTime().isBefore(from) && e.getDateTime().isBefore(from.plusMonths(1)))
+                && month.stream().anyMatch(e -> calendars.calendarOf(e) == personal)
+                && month.stream().map(Event::getDateTime).sorted().toList()
+                        .equals(month.stream().map(Event::getDateTime).toList());
+
+        // the cached orders follow adds, removes and moves, and what was read before keeps its events
+        Comparator<Event> byName = CalendarSet.BY_NAME;
+        calendars.events(byName).iterator().next();
+        Iterable<Event> earlier = calendars.events(CalendarSet.BY_DATE_TIME);
+        List<Event> earlierOrder = new ArrayList<>();
+        earlier.forEach(earlierOrder::add);
+        team.addEvent(new Deadline("Added Deadline", from.plusDays(3)));
+        team.removeEvent(team.getEvents().iterator().next());
+        personal.rescheduleWhere(e -> e instanceof Meeting, Duration.ofDays(-40));
+        rename(personal, personal.getEvents().iterator().next().getName(), "AAA First by Name");
+        List<Event> earlierAgain = new ArrayList<>();
+        earlier.forEach(earlierAgain::add);
+        boolean followed = inOrder(calendars, CalendarSet.BY_DATE_TIME, team, personal)
+                && inOrder(calendars, byName, team, personal)
+                && earlierAgain.size() == earlierOrder.size()
+                && new HashSet<>(earlierAgain).equals(new HashSet<>(earlierOrder));
+
+        // orders other than the standard ones are sorted each time but never cached
+        int cached = calendars.cachedArrays();
+        for (int i = 0; i < 50; i++) {
+            calendars.events(Comparator.comparing(Event::getName).reversed()).iterator().next();
+        }
+        boolean bounded = calendars.cachedArrays() == cached
+                && inOrder(calendars, Comparator.comparing(Event::getDateTime).thenComparing(Event::getName), team, personal);
+        return mergedInOrder && toggled && ranged && followed && bounded;
+    }
+
+    public static boolean testBatch() {
+        try {
+            Path input = Files.createTempFile("events", ".jsonl");
+            Path output = Files.createTempFile("events", ".jsonl");
+            Files.write(input, Stream.of(firstDeadline, midDeadline, firstMeeting, lastMeeting, firstMeeting)
+                    .map(EventJson::toJson).toList());
+
+            // duplicates go, deadlines before the mid deadline complete, meetings move a day and only October is kept
+            PrintStream quiet = new PrintStream(OutputStream.nullOutputStream());
+            EventBatch batch = new EventBatch(System.in, System.out, quiet);
+            batch.run(new String[] {"load", input.toString(), "dedupe",
+                            "complete", "type=deadline", "to=" + midDeadline.getDateTime(),
+                            "shift", "P1D", "type=meeting",
+                            "filter", "from=2024-10-01", "to=2024-11-01",
+                            "export", output.toString()});
+            List<Event> exported = Files.readAllLines(output).stream().map(EventJson::fromJson).toList();
+            boolean piped = exported.size() == 2
+                    && exported.get(0).getName().equals(firstMeeting.getName())
+                    && exported.get(0).getDateTime().equals(firstMeeting.getDateTime().plusDays(1))
+                    && exported.get(1).getName().equals(lastMeeting.getName())
+                    && !batch.getEventManager().canUndo();
+
+            // two exports to stdout write one after the other, so every line is still a whole event
+            ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+            new EventBatch(System.in, new PrintStream(stdout, true, StandardCharsets.UTF_8), quiet)
+                    .run(new String[] {"load", input.toString(), "export", "-", "export", "-"});
+            List<String> lines = stdout.toString(StandardCharsets.UTF_8).lines().toList();
+            boolean sequential = lines.size() == 10 && lines.stream().allMatch(line -> EventJson.fromJson(line) != null);
+
+            // two loads from stdin read one after the other, so the first takes every line whole
+            List<String> many = new ArrayList<>();
+            for (int i = 0; i < 20_000; i++) {
+                many.add(EventJson.toJson(new Deadline("Piped " + i, deadline)));
+            }
+            EventBatch fromStdin = new EventBatch(new ByteArrayInputStream(
+                    String.join("\n", many).getBytes(StandardCharsets.UTF_8)), System.out, quiet);
+            fromStdin.run(new String[] {"load", "-", "load", "-"});
+            boolean stdinWhole = fromStdin.getEventManager().getEvents().size() == 20_000;
+
+            // a bad date or a missing field is a data error naming the file and line
+            Path broken = Files.createTempFile("events", ".jsonl");
+            Files.write(broken, List.of(EventJson.toJson(firstDeadline), "",
+                    EventJson.toJson(midDeadline).replace(midDeadline.getDateTime().toString(), "2024-13-01T00:00")));
+            boolean badDate = failsWith(quiet, broken, broken + ":3: ");
+            Files.write(broken, List.of("{\"type\":\"deadline\",\"name\":\"No Date\"}"));
+            boolean missingField = failsWith(quiet, broken, broken + ":1: Missing field");
+            return piped && sequential && stdinWhole && badDate && missingField;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    public static boolean testRecordReplay() {
+        try {
+            Path trace = Files.createTempFile("mutations", ".bin");
+            EventManager eventManager = new EventManager();
+            eventManager.loadEvents(List.of(new Deadline("Loaded Deadline", deadline)));
+            eventManager.subscribe((EventManager.EventListener) () -> { }, EventInterest.ALL, Runnable::run);
+
+            // adds, a completion, a bulk reschedule, a removal and its undo all end up in the trace
+            MutationRecorder recorder = new MutationRecorder(eventManager, trace);
+            Deadline recordedDeadline = new Deadline("Recorded Deadline", deadline.minusDays(1));
+            Meeting recordedMeeting = new Meeting("Recorded Meeting", start, end, location);
+            eventManager.addEvents(List.of(recordedDeadline, recordedMeeting));
+            eventManager.completeEvent(recordedDeadline);
+            eventManager.rescheduleWhere(event -> event instanceof Meeting, Duration.ofHours(1));
+            eventManager.removeById(recordedMeeting.getId());
+            eventManager.undo();
+            recorder.close();
+
+            MutationReplayer replayer = new MutationReplayer(new EventManager());
+            replayer.replay(trace, Double.POSITIVE_INFINITY, false);
+            EventManager replayed = replayer.getEventManager();
+            if (replayed.getEvents().size() != eventManager.getEvents().size() || replayer.getChangeCount() != 6) {
+                return false;
+            }
+            for (Event event : eventManager.getEvents()) {
+                Event copy = replayed.findById(event.getId());
+                if (copy == null || !EventChange.State.of(copy).equals(EventChange.State.of(event))) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    // Waits up to five seconds for a condition that another thread makes true
+    private static boolean eventually(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline) {
+            if (condition.getAsBoolean()) {
+                return true;
+            }
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                return false;
+            }
+        }
+        return condition.getAsBoolean();
+    }
+
+    // Renames the event with the given name in a manager
+    private static void rename(EventManager manager, String name, String newName) {
+        Event event = manager.getEvents().stream().filter(e -> e.getName().equals(name)).findFirst().orElseThrow();
+        EventChange.State state = EventChange.State.of(event);
+        manager.updateEvent(event, new EventChange.State(newName, state.dateTime(), state.endDateTime(),
+                state.location(), state.complete()));
+    }
+
+    // Sends a request with an optional body and returns the response
+    private static HttpResponse<String> send(HttpClient client, String method, String uri, String body)
+            throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(uri))
+                .method(method, body == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    // Checks that the merged events of a CalendarSet are those of the calendars, in the given order
+    private static boolean inOrder(CalendarSet calendars, Comparator<Event> order, EventManager... managers) {
+        List<Event> merged = new ArrayList<>();
+        calendars.events(order).forEach(merged::add);
+        List<Event> expected = new ArrayList<>();
+        for (EventManager manager : managers) {
+            expected.addAll(manager.getEvents());
+        }
+        expected.sort(order);
+        for (int i = 1; i < merged.size(); i++) {
+            if (order.compare(merged.get(i - 1), merged.get(i)) > 0) {
+                return false;
+            }
+        }
+        return merged.size() == expected.size()
+                && new HashSet<>(merged).equals(new HashSet<>(expected));
+    }
+
+    // Checks that loading a file fails with a data error whose message starts as expected
+    private static boolean failsWith(PrintStream log, Path input, String message) {
+        try {
+            new EventBatch(System.in, System.out, log).run(new String[] {"load", input.toString()});
+            return false;
+        } catch (EventBatch.DataException ex) {
+            return ex.getMessage().startsWith(message);
+        }
+    }
+
+    // Sends the sync server a frame with the given length, or if it is positive a DELTAS frame with one delta of that change kind
+    private static void sendRaw(int port, int value) throws IOException {
+        try (Socket socket = new Socket("localhost", port)) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            if (value < 0) {
+                out.writeInt(value);
+            } else {
+                out.writeInt(1 + 4 + 2 + 1 + 1);
+                out.writeByte(SyncChannel.DELTAS);
+                out.writeInt(1);
+                out.writeUTF("");
+                out.writeByte(value);
+                out.writeByte(0);
+            }
+            socket.getOutputStream().write(bytes.toByteArray());
+            socket.getOutputStream().flush();
+            // Wait for the server to hang up on us
+            socket.setSoTimeout(5000);
+            socket.getInputStream().read();
+        }
+    }
 }
@@ -0,0 +1,57 @@
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * EventTiering keeps the in-memory working set of an EventManager small by periodically
+ * moving cold events into its EventArchive: events that are complete, and events that ended
+ * longer ago than the configured horizon.
+ */
+public class EventTiering {
+    private final EventManager eventManager;        // Reference to the EventManager to keep small
+    private final Duration horizon;                 // How long after it ends an event stays in memory
+    private ScheduledExecutorService scheduler;     // Runs tiering periodically once started
+
+    // Constructs an EventTiering for an EventManager that already has an archive
+    public EventTiering(EventManager eventManager, Duration horizon) {
+        if (eventManager.getArchive() == null) {
+            throw new IllegalArgumentException("The EventManager has no archive");
+        }
+        this.eventManager = eventManager;
+        this.horizon = horizon;
+    }
+
+    // Method that archives the cold events now, returning how many were moved
+    public int runOnce() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(horizon);
+        return eventManager.archiveWhere(event -> event.isComplete() || endOf(event).isBefore(cutoff));
+    }
+
+    // Method that runs tiering now and then every period on a background thread
+    public synchronized void start(Duration period) {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "event-tiering");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::runOnce, 0, period.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    // Method that stops the periodic tiering
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+            scheduler = null;
+        }
+    }
+
+    // Function that returns when an event is over: the end of a meeting, or the time of a deadline
+    private static LocalDateTime endOf(Event event) {
+        return event instanceof Meeting meeting ? meeting.getEndDateTime() : event.getDateTime();
+    }
+}
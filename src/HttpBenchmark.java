@@ -0,0 +1,99 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * HttpBenchmark measures the throughput of an EventHttpServer on this machine and reports it,
+ * rather than checking it against a fixed figure, since that depends on the machine and its
+ * load. It serves generated events on a free port and has several clients request one event
+ * by ID, and then one day's events by range. While the range requests run it also edits the
+ * manager the way the GUI would and reports the slowest edit.
+ *
+ *   java HttpBenchmark [--events=N] [--clients=N] [--requests=N]
+ */
+public class HttpBenchmark {
+    public static void main(String[] args) throws Exception {
+        int count = 100_000;
+        int clients = 8;
+        int requests = 2000;
+        for (String arg : args) {
+            String[] option = arg.split("=", 2);
+            if (option.length != 2) {
+                throw new IllegalArgumentException("Expected --option=value: " + arg);
+            }
+            switch (option[0]) {
+                case "--events" -> count = Integer.parseInt(option[1]);
+                case "--clients" -> clients = Integer.parseInt(option[1]);
+                case "--requests" -> requests = Integer.parseInt(option[1]);
+                default -> throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+
+        EventManager manager = new EventManager();
+        EventGenerator generator = EventGenerator.defaults().withCount(count);
+        manager.loadEvents(generator.generate());
+        EventHttpServer server = new EventHttpServer(manager, 0);
+        server.start();
+        try {
+            HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            String base = "http://localhost:" + server.getPort() + "/events";
+            LocalDateTime day = generator.from().plusMonths(6).toLocalDate().atStartOfDay();
+            HttpRequest byId = HttpRequest.newBuilder(URI.create(base + "/0")).build();
+            HttpRequest byRange = HttpRequest.newBuilder(URI.create(base + "?from=" + day + "&to=" + day.plusDays(1))).build();
+
+            // Warm up the server and client before measuring
+            run(client, byId, 1, requests);
+            run(client, byRange, 1, requests / 10);
+
+            System.out.printf("GET by ID:    %,10.0f requests/s with %d clients%n",
+                    run(client, byId, clients, requests), clients);
+
+            // Edit the manager while range requests run, keeping the slowest edit
+            long[] slowestEdit = {0};
+            Event edited = manager.getEvents().iterator().next();
+            Thread editor = Thread.ofPlatform().start(() -> {
+                while (!Thread.currentThread().isInterrupted()) {
+                    long start = System.nanoTime();
+                    manager.updateEvent(edited, EventChange.State.of(edited).withComplete(!edited.isComplete()));
+                    slowestEdit[0] = Math.max(slowestEdit[0], System.nanoTime() - start);
+                    try {
+                        Thread.sleep(1);
+                    } catch (InterruptedException ex) {
+                        return;
+                    }
+                }
+            });
+            double rangeRate = run(client, byRange, clients, requests);
+            editor.interrupt();
+            editor.join();
+            System.out.printf("GET by range: %,10.0f requests/s with %d clients over %,d events%n",
+                    rangeRate, clients, count);
+            System.out.printf("Slowest edit during range requests: %.1f ms%n", slowestEdit[0] / 1e6);
+        } finally {
+            server.stop();
+        }
+    }
+
+    // Function that sends a request from several clients at once and returns the requests per second
+    private static double run(HttpClient client, HttpRequest request, int clients, int requests) throws Exception {
+        long start = System.nanoTime();
+        try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < clients; c++) {
+                pool.submit(() -> {
+                    for (int i = 0; i < requests / clients; i++) {
+                        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                        if (response.statusCode() != 200) {
+                            throw new IllegalStateException("Request failed: " + response.statusCode());
+                        }
+                    }
+                    return null;
+                });
+            }
+        }
+        return requests / clients * clients / ((System.nanoTime() - start) / 1e9);
+    }
+}
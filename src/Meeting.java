@@ -7,9 +7,9 @@ import java.time.LocalDateTime;
  */
 public class Meeting extends Event {
 
-    private LocalDateTime endDateTime; // The time the meeting is over
-    private String location;           // Represents the location of the event
-    private boolean complete = false;  // Holds whether the meeting is complete
+    private volatile LocalDateTime endDateTime; // The time the meeting is over
+    private volatile String location;           // Represents the location of the event
+    private volatile boolean complete = false;  // Holds whether the meeting is complete
 
     // Constructor matching the one used in EventTester.
     public Meeting(String name, LocalDateTime start, LocalDateTime end, String location) {
@@ -55,6 +55,13 @@ public class Meeting extends Event {
         super.complete();
     }
 
+    // Override setComplete() so that undoing a completion also resets the meeting's own flag
+    @Override
+    void setComplete(boolean complete) {
+        this.complete = complete;
+        super.setComplete(complete);
+    }
+
     /**
      * Override isComplete() method from Event.
      * Return true if the meeting is complete, false otherwise.
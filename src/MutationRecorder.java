@@ -0,0 +1,301 @@
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * MutationRecorder captures what happens to an EventManager as a compact, timestamped trace:
+ * every change it makes, every notification a subscriber receives (and how long the subscriber
+ * took), and every change of a subscription's interest, such as a calendar switching months.
+ * A MutationReplayer feeds the trace back into a fresh EventManager to reproduce the workload.
+ *
+ * Recording costs the manager one queue insertion per edit while it is locked; a background
+ * thread encodes the entries and writes them deflated. The trace is a header followed by records:
+ *
+ *   header:  MAGIC (int), VERSION (int), wall-clock start in epoch milliseconds (long)
+ *   SNAPSHOT / CHANGES:  type, time, count, then per change: kind, event ID, the event's state
+ *                        after the change (absent for REMOVE and ARCHIVE, see writeState())
+ *   DELIVERY:  type, time, subscriber name, number of changes, nanoseconds taken
+ *   INTEREST:  type, time, subscriber name, start of the interest range or "" if unbounded
+ *   NAME:      type, name index, name (defines the index used by DELIVERY and INTEREST)
+ *
+ * Times are nanoseconds since the recording started. Integers other than the header are
+ * variable-length, so small IDs and time steps take a byte or two.
+ */
+public class MutationRecorder implements EventManager.ChangeListener, EventManager.DeliveryListener, AutoCloseable {
+    static final int MAGIC = 0x45565452;   // "EVTR"
+    static final int VERSION = 1;
+
+    static final byte SNAPSHOT = 1;        // The events present when recording started
+    static final byte CHANGES = 2;         // The changes made by one edit
+    static final byte DELIVERY = 3;        // One notification of one subscriber
+    static final byte INTEREST = 4;        // A subscriber changing its interest
+    static final byte NAME = 5;            // A subscriber name used by later records
+
+    private static final Object STOP = new Object();   // Queued by close() after the last entry
+
+    private final EventManager eventManager;         // Manager being recorded
+    private final long startNanos;                   // Time recording started, all times are relative to it
+    private final BlockingQueue<Object> queue;       // Entries waiting to be written, then STOP
+    private final Thread writer;                     // Encodes and writes the queued entries
+    private final DataOutputStream out;              // Deflated trace file
+    private final Map<String, Integer> names;        // Index of each subscriber name written so far, writer thread only
+    private volatile IOException failure;            // First error of the writer thread, reported by close()
+    private long records = 0;                        // Number of records written, writer thread only
+
+    // Constructs a MutationRecorder writing to a file, records the events already present and starts recording
+    public MutationRecorder(EventManager eventManager, Path trace) throws IOException {
+        this.eventManager = eventManager;
+        this.queue = new LinkedBlockingQueue<>();
+        this.names = new HashMap<>();
+        this.out = new DataOutputStream(new BufferedOutputStream(new DeflaterOutputStream(
+                Files.newOutputStream(trace), new Deflater(Deflater.BEST_SPEED), 1 << 16), 1 << 16));
+        this.startNanos = System.nanoTime();
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeLong(System.currentTimeMillis());
+
+        // Take the starting state and attach while the manager is locked, so no change is missed
+        synchronized (eventManager) {
+            List<EventChange> present = new ArrayList<>();
+            for (Event event : eventManager.getEvents()) {
+                present.add(new EventChange(EventChange.Kind.ADD, event, null, EventChange.State.of(event)));
+            }
+            queue.add(new Entry(SNAPSHOT, startNanos, present));
+            eventManager.addChangeListener(this);
+        }
+        eventManager.addDeliveryListener(this);
+
+        writer = new Thread(this::writeEntries, "mutation-recorder");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Method that is called by the EventManager with every change while it is locked.
+     * Implements the EventManager.ChangeListener interface method.
+     */
+    @Override
+    public void eventsChanged(List<EventChange> changes) {
+        queue.add(new Entry(CHANGES, System.nanoTime(), changes));
+    }
+
+    /**
+     * Method that is called after each notification of a subscriber.
+     * Implements the EventManager.DeliveryListener interface method.
+     */
+    @Override
+    public void delivered(EventSubscription subscription, int changes, long nanos) {
+        queue.add(new Entry(DELIVERY, System.nanoTime(), new Delivery(nameOf(subscription), changes, nanos)));
+    }
+
+    /**
+     * Method that is called when a subscriber changes its interest.
+     * Implements the EventManager.DeliveryListener interface method.
+     */
+    @Override
+    public void interestChanged(EventSubscription subscription) {
+        queue.add(new Entry(INTEREST, System.nanoTime(), new Interest(nameOf(subscription), subscription.getInterest().from())));
+    }
+
+    // Method that stops recording and finishes the trace file
+    @Override
+    public void close() throws IOException {
+        eventManager.removeChangeListener(this);
+        eventManager.removeDeliveryListener(this);
+        queue.add(STOP);
+        try {
+            writer.join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        out.close();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    // Method that retrieves the number of records written so far
+    public synchronized long getRecordCount() {
+        return records;
+    }
+
+    // Function run by the writer thread: encodes entries until close() queues STOP
+    private void writeEntries() {
+        try {
+            Object item;
+            while ((item = queue.take()) != STOP) {
+                if (failure == null) {
+                    write((Entry) item);
+                    synchronized (this) {
+                        records++;
+                    }
+                }
+            }
+            out.flush();
+        } catch (IOException ex) {
+            failure = ex;
+            // Keep draining so that close() still finds STOP
+            drainUntilStop();
+        } catch (InterruptedException ex) {
+            failure = new IOException("Recording was interrupted", ex);
+        }
+    }
+
+    // Function that discards queued entries after a write failure, until close() queues STOP
+    private void drainUntilStop() {
+        try {
+            while (queue.take() != STOP) {
+                // Nothing can be written any more
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Function that encodes one entry
+    private void write(Entry entry) throws IOException {
+        long time = entry.nanos() - startNanos;
+        switch (entry.payload()) {
+            case List<?> changes -> {
+                out.writeByte(entry.type());
+                writeVarLong(out, time);
+                writeVarLong(out, changes.size());
+                for (Object item : changes) {
+                    EventChange change = (EventChange) item;
+                    out.writeByte(change.kind().ordinal());
+                    writeVarLong(out, change.event().getId());
+                    if (hasState(change.kind())) {
+                        writeState(out, change.after());
+                    }
+                }
+            }
+            case Delivery delivery -> {
+                int name = nameIndex(delivery.subscriber());
+                out.writeByte(DELIVERY);
+                writeVarLong(out, time);
+                writeVarLong(out, name);
+                writeVarLong(out, delivery.changes());
+                writeVarLong(out, delivery.nanos());
+            }
+            case Interest interest -> {
+                int name = nameIndex(interest.subscriber());
+                out.writeByte(INTEREST);
+                writeVarLong(out, time);
+                writeVarLong(out, name);
+                out.writeUTF(interest.from() == null ? "" : interest.from().toString());
+            }
+            default -> throw new IllegalStateException("Unknown entry: " + entry);
+        }
+    }
+
+    // Function that returns the index of a subscriber name, writing a NAME record the first time it is used
+    private int nameIndex(String name) throws IOException {
+        Integer index = names.get(name);
+        if (index == null) {
+            index = names.size();
+            names.put(name, index);
+            out.writeByte(NAME);
+            writeVarLong(out, index);
+            out.writeUTF(name);
+        }
+        return index;
+    }
+
+    // Function that writes an event's state, with times as seconds and nanoseconds rather than text
+    static void writeState(DataOutput out, EventChange.State state) throws IOException {
+        out.writeByte((state.complete() ? 1 : 0) | (state.endDateTime() != null ? 2 : 0));
+        out.writeUTF(state.name());
+        writeTime(out, state.dateTime());
+        if (state.endDateTime() != null) {
+            writeTime(out, state.endDateTime());
+            out.writeUTF(state.location() == null ? "" : state.location());
+        }
+    }
+
+    // Function that reads a state written by writeState()
+    static EventChange.State readState(DataInput in) throws IOException {
+        int flags = in.readByte();
+        String name = in.readUTF();
+        LocalDateTime dateTime = readTime(in);
+        LocalDateTime endDateTime = null;
+        String location = null;
+        if ((flags & 2) != 0) {
+            endDateTime = readTime(in);
+            location = in.readUTF();
+        }
+        return new EventChange.State(name, dateTime, endDateTime, location, (flags & 1) != 0);
+    }
+
+    // Function that writes a time as its (zigzag-encoded) epoch second and nanosecond
+    private static void writeTime(DataOutput out, LocalDateTime time) throws IOException {
+        long seconds = time.toEpochSecond(ZoneOffset.UTC);
+        writeVarLong(out, (seconds << 1) ^ (seconds >> 63));
+        writeVarLong(out, time.getNano());
+    }
+
+    // Function that reads a time written by writeTime()
+    private static LocalDateTime readTime(DataInput in) throws IOException {
+        long zigzag = readVarLong(in);
+        long seconds = (zigzag >>> 1) ^ -(zigzag & 1);
+        return LocalDateTime.ofEpochSecond(seconds, (int) readVarLong(in), ZoneOffset.UTC);
+    }
+
+    // Function that checks whether a change of the given kind is written with the event's state after it
+    static boolean hasState(EventChange.Kind kind) {
+        return kind != EventChange.Kind.REMOVE && kind != EventChange.Kind.ARCHIVE;
+    }
+
+    // Function that names a subscriber by its class, e.g. "EventListPanel", or "EventListPanel lambda" for a lambda in it
+    static String nameOf(EventSubscription subscription) {
+        String name = subscription.getSubscriber().getClass().getName();
+        int lambda = name.indexOf("$$");
+        return lambda < 0 ? name : name.substring(0, lambda) + " lambda";
+    }
+
+    // Function that writes a non-negative number in 7-bit groups, low group first
+    static void writeVarLong(DataOutput out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    // Function that reads a number written by writeVarLong()
+    static long readVarLong(DataInput in) throws IOException {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = in.readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+    }
+
+    // A queued entry: its record type, when it happened, and what to write
+    private record Entry(byte type, long nanos, Object payload) {
+    }
+
+    // A queued notification of a subscriber
+    private record Delivery(String subscriber, int changes, long nanos) {
+    }
+
+    // A queued change of interest of a subscriber
+    private record Interest(String subscriber, LocalDateTime from) {
+    }
+}
@@ -0,0 +1,390 @@
+import javax.swing.*;
+import java.awt.image.BufferedImage;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * MutationReplayer feeds a trace written by a MutationRecorder into a fresh EventManager, either
+ * at the pace it was recorded (optionally sped up) or as fast as possible, and measures how long
+ * each operation takes. With views attached, the real EventListPanel and CalendarDisplay are built
+ * (headless by default, like StressHarness), recorded month switches are replayed on the calendar,
+ * and each operation is timed until the EDT has applied its updates and both views have been
+ * painted. Running the same trace against two builds compares them on the same workload.
+ *
+ * Each recorded edit is replayed as one EventManager call per kind of change it made: the added
+ * events are added together, the removed (or archived) ones are removed together and the changed
+ * ones are updated together. Undo and redo were recorded as the changes they made, so they are
+ * replayed the same way.
+ *
+ *   java MutationReplayer trace.bin --speed=max|realtime|<factor> --views --report=replay-report.txt
+ */
+public class MutationReplayer {
+    private final EventManager eventManager;                       // Fresh manager the trace is replayed into
+    private final Map<String, List<Long>> latencies;               // Measured nanoseconds per operation
+    private final Map<String, List<Long>> recordedDeliveries;      // Recorded delivery nanoseconds per subscriber
+    private final Map<String, List<Long>> replayedDeliveries;      // Replayed delivery nanoseconds per subscriber
+    private final BufferedImage canvas;                            // Offscreen image the views are painted into
+    private EventListPanel listPanel;                              // Views, built on the EDT if asked for
+    private CalendarDisplay calendarDisplay;
+    private JComboBox<?> monthSelector;                            // The calendar's month drop-down
+    private long operations = 0;                                   // Number of EventManager calls and month switches replayed
+    private long changes = 0;                                      // Number of changes replayed
+    private long skipped = 0;                                      // Changes to events that were not present, and unreplayable interest changes
+    private long replayNanos = 0;                                  // Time the replay took, without loading the starting events
+    private Instant recordedAt;                                    // When the trace was recorded
+
+    // Constructs a MutationReplayer for a fresh EventManager
+    public MutationReplayer(EventManager eventManager) {
+        this.eventManager = eventManager;
+        this.latencies = new LinkedHashMap<>();
+        this.recordedDeliveries = new LinkedHashMap<>();
+        this.replayedDeliveries = new LinkedHashMap<>();
+        this.canvas = new BufferedImage(StressHarness.WIDTH, StressHarness.HEIGHT, BufferedImage.TYPE_INT_RGB);
+        eventManager.addDeliveryListener((subscription, count, nanos) -> {
+            synchronized (replayedDeliveries) {
+                add(replayedDeliveries, MutationRecorder.nameOf(subscription), nanos);
+            }
+        });
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (System.getProperty("java.awt.headless") == null) {
+            System.setProperty("java.awt.headless", "true");
+        }
+
+        // Read the trace file and the replay settings from the command line
+        Path trace = null;
+        double speed = Double.POSITIVE_INFINITY;
+        boolean views = false;
+        Path report = Path.of("replay-report.txt");
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                trace = Path.of(arg);
+                continue;
+            }
+            String[] option = arg.split("=", 2);
+            switch (option[0]) {
+                case "--speed" -> speed = parseSpeed(option.length == 2 ? option[1] : "");
+                case "--views" -> views = true;
+                case "--report" -> report = Path.of(option[1]);
+                default -> throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+        if (trace == null) {
+            throw new IllegalArgumentException("Usage: java MutationReplayer <trace> [--speed=max|realtime|<factor>] [--views] [--report=<file>]");
+        }
+
+        MutationReplayer replayer = new MutationReplayer(new EventManager());
+        replayer.replay(trace, speed, views);
+        replayer.writeReport(report, trace, speed, views);
+        System.out.println("Replay report written to " + report.toAbsolutePath());
+        System.exit(0);
+    }
+
+    /**
+     * Method that replays a trace. The speed is how many times faster than recorded to go:
+     * 1 replays in real time and Double.POSITIVE_INFINITY replays as fast as possible. The
+     * events present when recording started are loaded first and are not timed; if views are
+     * asked for, they are built once those events are loaded.
+     */
+    public void replay(Path trace, double speed, boolean views)
+            throws IOException, InterruptedException, InvocationTargetException {
+        List<String> names = new ArrayList<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new InflaterInputStream(Files.newInputStream(trace), new Inflater(), 1 << 16), 1 << 16))) {
+            if (in.readInt() != MutationRecorder.MAGIC || in.readInt() != MutationRecorder.VERSION) {
+                throw new IOException("Not a mutation trace, or written by another version: " + trace);
+            }
+            recordedAt = Instant.ofEpochMilli(in.readLong());
+
+            long start = 0;
+            while (true) {
+                int type = in.read();
+                if (type < 0) {
+                    break;
+                }
+                if (type == MutationRecorder.NAME) {
+                    int index = (int) MutationRecorder.readVarLong(in);
+                    names.add(index, in.readUTF());
+                    continue;
+                }
+                long time = MutationRecorder.readVarLong(in);
+                switch (type) {
+                    case MutationRecorder.SNAPSHOT -> {
+                        List<Event> present = new ArrayList<>();
+                        for (Change change : readChanges(in)) {
+                            present.add(newEvent(change));
+                        }
+                        eventManager.loadEvents(present);
+                        if (views) {
+                            buildViews();
+                        }
+                        start = System.nanoTime();
+                    }
+                    case MutationRecorder.CHANGES -> {
+                        List<Change> batch = readChanges(in);
+                        waitUntil(start, time, speed);
+                        apply(batch);
+                    }
+                    case MutationRecorder.DELIVERY -> {
+                        String name = names.get((int) MutationRecorder.readVarLong(in));
+                        MutationRecorder.readVarLong(in);
+                        add(recordedDeliveries, name, MutationRecorder.readVarLong(in));
+                    }
+                    case MutationRecorder.INTEREST -> {
+                        String name = names.get((int) MutationRecorder.readVarLong(in));
+                        String from = in.readUTF();
+                        waitUntil(start, time, speed);
+                        switchMonth(name, from.isEmpty() ? null : LocalDateTime.parse(from));
+                    }
+                    default -> throw new IOException("Unknown record type " + type + " in " + trace);
+                }
+            }
+            // Let the last updates reach the views before stopping the clock
+            if (views) {
+                SwingUtilities.invokeAndWait(() -> { });
+            }
+            replayNanos = System.nanoTime() - start;
+        } catch (EOFException ex) {
+            throw new IOException("The trace ends in the middle of a record, it was not closed: " + trace, ex);
+        }
+    }
+
+    // Method that retrieves the EventManager the trace is replayed into
+    public EventManager getEventManager() {
+        return eventManager;
+    }
+
+    // Method that retrieves the number of changes replayed
+    public long getChangeCount() {
+        return changes;
+    }
+
+    // Method that retrieves the number of operations replayed
+    public long getOperationCount() {
+        return operations;
+    }
+
+    // Method that writes the settings, throughput, latency percentiles and delivery times to a file
+    public void writeReport(Path file, Path trace, double speed, boolean views) throws IOException {
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file))) {
+            out.printf("Replay report, %s%n", LocalDateTime.now());
+            out.printf("trace=%s recorded=%s speed=%s views=%s%n", trace, recordedAt,
+                    Double.isInfinite(speed) ? "max" : speed, views);
+            out.printf("java=%s headless=%s processors=%d%n%n", System.getProperty("java.version"),
+                    System.getProperty("java.awt.headless"), Runtime.getRuntime().availableProcessors());
+
+            double seconds = Math.max(replayNanos, 1) / 1e9;
+            out.printf("replayed %d operations with %d changes in %.3f s, %d skipped%n", operations, changes, seconds, skipped);
+            out.printf("throughput %.1f operations/s, %.1f changes/s%n%n", operations / seconds, changes / seconds);
+
+            out.printf("%-24s %8s %10s %10s %10s %10s%n", "operation", "count", "p50 ms", "p90 ms", "p99 ms", "max ms");
+            writeTable(out, latencies);
+
+            out.println();
+            out.println("Subscriber deliveries, as recorded:");
+            writeTable(out, recordedDeliveries);
+            out.println("Subscriber deliveries, replayed:");
+            synchronized (replayedDeliveries) {
+                writeTable(out, replayedDeliveries);
+            }
+        }
+    }
+
+    // Function that builds both views on the EDT and finds the calendar's month drop-down
+    private void buildViews() throws InterruptedException, InvocationTargetException {
+        SwingUtilities.invokeAndWait(() -> {
+            listPanel = new EventListPanel(eventManager);
+            calendarDisplay = new CalendarDisplay(eventManager);
+            render();
+        });
+        monthSelector = StressHarness.onEdt(() -> StressHarness.find(calendarDisplay, JComboBox.class, combo -> true));
+    }
+
+    // Function that replays one recorded edit, one EventManager call per run of changes of the same sort
+    private void apply(List<Change> batch) throws InterruptedException, InvocationTargetException {
+        int from = 0;
+        while (from < batch.size()) {
+            Operation operation = Operation.of(batch.get(from).kind());
+            int to = from + 1;
+            while (to < batch.size() && Operation.of(batch.get(to).kind()) == operation) {
+                to++;
+            }
+            List<Change> run = batch.subList(from, to);
+            switch (operation) {
+                case ADD -> measure("add", false, () -> {
+                    List<Event> added = new ArrayList<>(run.size());
+                    for (Change change : run) {
+                        added.add(newEvent(change));
+                    }
+                    eventManager.addEvents(added);
+                });
+                case REMOVE -> measure("remove", false, () -> {
+                    if (run.size() == 1) {
+                        eventManager.removeById(run.get(0).id());
+                    } else {
+                        BitSet ids = new BitSet();
+                        for (Change change : run) {
+                            ids.set(change.id());
+                        }
+                        eventManager.removeWhere(event -> ids.get(event.getId()));
+                    }
+                });
+                case UPDATE -> measure("update", false, () -> {
+                    Map<Event, EventChange.State> states = new LinkedHashMap<>();
+                    for (Change change : run) {
+                        Event event = eventManager.findById(change.id());
+                        if (event == null) {
+                            skipped++;
+                        } else {
+                            states.put(event, change.state());
+                        }
+                    }
+                    eventManager.updateEvents(states);
+                });
+            }
+            changes += run.size();
+            from = to;
+        }
+    }
+
+    // Function that replays the calendar showing another month, the one interest change that comes from a view
+    private void switchMonth(String subscriber, LocalDateTime from)
+            throws InterruptedException, InvocationTargetException {
+        if (monthSelector == null || from == null || !subscriber.equals(CalendarDisplay.class.getName())) {
+            skipped++;
+            return;
+        }
+        YearMonth month = YearMonth.from(from);
+        int index = StressHarness.onEdt(() -> {
+            for (int i = 0; i < monthSelector.getItemCount(); i++) {
+                if (month.equals(monthSelector.getItemAt(i))) {
+                    return i;
+                }
+            }
+            return -1;
+        });
+        if (index < 0) {
+            skipped++;
+            return;
+        }
+        measure("month switch", true, () -> monthSelector.setSelectedIndex(index));
+    }
+
+    /**
+     * Function that runs an operation, here or on the EDT, then with views lets the EDT apply
+     * the resulting updates and paints both views, timing all of it.
+     */
+    private void measure(String name, boolean onEdt, Runnable operation)
+            throws InterruptedException, InvocationTargetException {
+        long start = System.nanoTime();
+        if (onEdt) {
+            SwingUtilities.invokeAndWait(operation);
+        } else {
+            operation.run();
+        }
+        if (listPanel != null) {
+            // Updates the operation caused are queued on the EDT by now, so this runs after them
+            SwingUtilities.invokeAndWait(this::render);
+        }
+        add(latencies, name, System.nanoTime() - start);
+        operations++;
+    }
+
+    // Function that lays out and paints both views into the offscreen image
+    private void render() {
+        StressHarness.render(listPanel, canvas);
+        StressHarness.render(calendarDisplay, canvas);
+    }
+
+    // Function that sleeps until a recorded time, scaled by the speed, has passed since the replay started
+    private static void waitUntil(long start, long recordedNanos, double speed) throws InterruptedException {
+        if (Double.isInfinite(speed)) {
+            return;
+        }
+        long wait = start + (long) (recordedNanos / speed) - System.nanoTime();
+        if (wait > 0) {
+            Thread.sleep(Duration.ofNanos(wait));
+        }
+    }
+
+    // Function that reads the changes of a SNAPSHOT or CHANGES record
+    private static List<Change> readChanges(DataInputStream in) throws IOException {
+        int count = (int) MutationRecorder.readVarLong(in);
+        List<Change> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            EventChange.Kind kind = EventChange.Kind.values()[in.readByte()];
+            int id = (int) MutationRecorder.readVarLong(in);
+            EventChange.State state = MutationRecorder.hasState(kind) ? MutationRecorder.readState(in) : null;
+            result.add(new Change(kind, id, state));
+        }
+        return result;
+    }
+
+    // Function that creates an added event with its recorded ID and state
+    private static Event newEvent(Change change) {
+        Event event = change.state().toEvent();
+        event.setId(change.id());
+        return event;
+    }
+
+    // Function that parses the --speed option
+    private static double parseSpeed(String value) {
+        return switch (value) {
+            case "max" -> Double.POSITIVE_INFINITY;
+            case "realtime" -> 1;
+            default -> Double.parseDouble(value);
+        };
+    }
+
+    // Function that adds a measured time to a table
+    private static void add(Map<String, List<Long>> table, String name, long nanos) {
+        table.computeIfAbsent(name, key -> new ArrayList<>()).add(nanos);
+    }
+
+    // Function that writes the count and percentiles of each row of a table
+    private static void writeTable(PrintWriter out, Map<String, List<Long>> table) {
+        for (Map.Entry<String, List<Long>> entry : table.entrySet()) {
+            long[] sorted = entry.getValue().stream().mapToLong(Long::longValue).sorted().toArray();
+            out.printf("%-24s %8d %10.3f %10.3f %10.3f %10.3f%n", entry.getKey(), sorted.length,
+                    StressHarness.millis(StressHarness.percentile(sorted, 0.50)),
+                    StressHarness.millis(StressHarness.percentile(sorted, 0.90)),
+                    StressHarness.millis(StressHarness.percentile(sorted, 0.99)),
+                    StressHarness.millis(sorted[sorted.length - 1]));
+        }
+    }
+
+    // A recorded change: its kind, the event's ID and the event's state after it (null for removals)
+    private record Change(EventChange.Kind kind, int id, EventChange.State state) {
+    }
+
+    // The EventManager call each kind of change is replayed with
+    private enum Operation {
+        ADD, REMOVE, UPDATE;
+
+        static Operation of(EventChange.Kind kind) {
+            return switch (kind) {
+                case ADD -> ADD;
+                case REMOVE, ARCHIVE -> REMOVE;
+                case MODIFY, COMPLETE -> UPDATE;
+            };
+        }
+    }
+}
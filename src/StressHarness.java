@@ -0,0 +1,267 @@
+import javax.swing.*;
+import java.awt.Component;
+import java.awt.Container;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * StressHarness loads a synthetic workload from an EventGenerator into an EventManager and
+ * drives the real EventListPanel and CalendarDisplay through scripted interactions: sort
+ * changes, filter toggles, month switches and completions. Each interaction is timed from the
+ * moment it starts until the EDT has delivered the resulting updates and the panel has been
+ * laid out and painted offscreen. Latency percentiles per interaction and heap use are written
+ * to a report file.
+ *
+ * It runs headless by default; pass -Djava.awt.headless=false to run under a (virtual) display.
+ *
+ *   java StressHarness --events=100000 --meetings=0.7 --locations=50 --completed=0.3
+ *                      --distribution=clustered --seed=1 --rounds=20 --report=stress-report.txt
+ */
+public class StressHarness {
+    static final int WIDTH = 1000;              // Size the panels are laid out and painted at
+    static final int HEIGHT = 700;
+    private static final int LOAD_BATCH_SIZE = 1000;  // Number of events handed to the EventManager at once
+
+    private final EventManager eventManager;                  // Manager holding the generated events
+    private final Map<String, List<Long>> latencies;          // Measured nanoseconds per interaction name
+    private final Map<String, Long> heap;                     // Heap in use after each phase, in bytes
+    private final BufferedImage canvas;                       // Offscreen image the panels are painted into
+    private EventListPanel listPanel;                         // Panels under test, built on the EDT
+    private CalendarDisplay calendarDisplay;
+
+    // Constructs a StressHarness for an empty EventManager
+    public StressHarness(EventManager eventManager) {
+        this.eventManager = eventManager;
+        this.latencies = new LinkedHashMap<>();
+        this.heap = new LinkedHashMap<>();
+        this.canvas = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (System.getProperty("java.awt.headless") == null) {
+            System.setProperty("java.awt.headless", "true");
+        }
+
+        // Read the generator settings and the script length from the command line
+        EventGenerator generator = EventGenerator.defaults().withCount(10_000);
+        int rounds = 20;
+        Path report = Path.of("stress-report.txt");
+        for (String arg : args) {
+            String[] option = arg.split("=", 2);
+            if (option.length != 2) {
+                throw new IllegalArgumentException("Expected --option=value: " + arg);
+            }
+            String value = option[1];
+            switch (option[0]) {
+                case "--events" -> generator = generator.withCount(Integer.parseInt(value));
+                case "--meetings" -> generator = generator.withMeetingRatio(Double.parseDouble(value));
+                case "--locations" -> generator = generator.withLocations(Integer.parseInt(value));
+                case "--completed" -> generator = generator.withCompletedRatio(Double.parseDouble(value));
+                case "--distribution" -> generator = generator.withDistribution(
+                        EventGenerator.Distribution.valueOf(value.toUpperCase(Locale.ROOT)));
+                case "--seed" -> generator = generator.withSeed(Long.parseLong(value));
+                case "--rounds" -> rounds = Integer.parseInt(value);
+                case "--report" -> report = Path.of(value);
+                default -> throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+
+        StressHarness harness = new StressHarness(new EventManager());
+        harness.load(generator);
+        harness.buildViews();
+        harness.runScript(rounds);
+        harness.writeReport(report, generator, rounds);
+        System.out.println("Stress report written to " + report.toAbsolutePath());
+        System.exit(0);
+    }
+
+    // Method that loads the generated events in batches, timing the whole load
+    public void load(EventGenerator generator) {
+        long start = System.nanoTime();
+        List<Event> batch = new ArrayList<>(LOAD_BATCH_SIZE);
+        Iterator<Event> events = generator.stream().iterator();
+        while (events.hasNext()) {
+            batch.add(events.next());
+            if (batch.size() == LOAD_BATCH_SIZE) {
+                eventManager.loadEvents(batch);
+                batch = new ArrayList<>(LOAD_BATCH_SIZE);
+            }
+        }
+        eventManager.loadEvents(batch);
+        record("load", System.nanoTime() - start);
+        recordHeap("after load");
+    }
+
+    // Method that builds and first paints both views on the EDT, timing each
+    public void buildViews() throws InterruptedException, InvocationTargetException {
+        measure("build list", () -> listPanel = new EventListPanel(eventManager), () -> render(listPanel));
+        measure("build calendar", () -> calendarDisplay = new CalendarDisplay(eventManager), () -> render(calendarDisplay));
+        recordHeap("after building views");
+    }
+
+    /**
+     * Method that runs the interaction script the given number of times. Each round changes the
+     * sort order, toggles each filter, switches the calendar to the next month and completes an
+     * event through its Complete button.
+     */
+    public void runScript(int rounds) throws InterruptedException, InvocationTargetException {
+        JComboBox<?> sortDropDown = onEdt(() -> find(listPanel, JComboBox.class, combo -> true));
+        JCheckBox hideCompleted = onEdt(() -> find(listPanel, JCheckBox.class,
+                box -> box.getText().equals("Hide Completed")));
+        JCheckBox showDeadlines = onEdt(() -> find(listPanel, JCheckBox.class,
+                box -> box.getText().equals("Show Deadlines")));
+        JCheckBox showMeetings = onEdt(() -> find(listPanel, JCheckBox.class,
+                box -> box.getText().equals("Show Meetings")));
+        JComboBox<?> monthSelector = onEdt(() -> find(calendarDisplay, JComboBox.class, combo -> true));
+
+        for (int round = 0; round < rounds; round++) {
+            measure("sort", () -> sortDropDown.setSelectedIndex(
+                    (sortDropDown.getSelectedIndex() + 1) % sortDropDown.getItemCount()), () -> render(listPanel));
+            for (JCheckBox filter : List.of(hideCompleted, showDeadlines, showMeetings)) {
+                measure("filter toggle", filter::doClick, () -> render(listPanel));
+                measure("filter toggle", filter::doClick, () -> render(listPanel));
+            }
+            measure("month switch", () -> monthSelector.setSelectedIndex(
+                    (monthSelector.getSelectedIndex() + 1) % monthSelector.getItemCount()), () -> render(calendarDisplay));
+
+            // Complete the first open event shown in the list, as a user would
+            JButton complete = onEdt(() -> find(listPanel, JButton.class,
+                    button -> button.getText().equals("Complete") && button.isEnabled()));
+            if (complete != null) {
+                measure("complete", complete::doClick, () -> {
+                    render(listPanel);
+                    render(calendarDisplay);
+                });
+            }
+        }
+        recordHeap("after script");
+    }
+
+    // Method that writes the settings, latency percentiles and heap use to a file
+    public void writeReport(Path file, EventGenerator generator, int rounds) throws IOException {
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file))) {
+            out.printf("Stress report, %s%n", LocalDateTime.now());
+            out.printf("events=%d meetings=%.2f locations=%d completed=%.2f distribution=%s seed=%d rounds=%d%n",
+                    generator.count(), generator.meetingRatio(), generator.locations(), generator.completedRatio(),
+                    generator.distribution(), generator.seed(), rounds);
+            out.printf("java=%s headless=%s processors=%d%n%n", System.getProperty("java.version"),
+                    System.getProperty("java.awt.headless"), Runtime.getRuntime().availableProcessors());
+
+            out.printf("%-16s %6s %10s %10s %10s %10s%n", "interaction", "count", "p50 ms", "p90 ms", "p99 ms", "max ms");
+            for (Map.Entry<String, List<Long>> entry : latencies.entrySet()) {
+                long[] sorted = entry.getValue().stream().mapToLong(Long::longValue).sorted().toArray();
+                out.printf("%-16s %6d %10.2f %10.2f %10.2f %10.2f%n", entry.getKey(), sorted.length,
+                        millis(percentile(sorted, 0.50)), millis(percentile(sorted, 0.90)),
+                        millis(percentile(sorted, 0.99)), millis(sorted[sorted.length - 1]));
+            }
+
+            out.println();
+            for (Map.Entry<String, Long> entry : heap.entrySet()) {
+                out.printf("heap used %-22s %8.1f MB%n", entry.getKey(), megabytes(entry.getValue()));
+            }
+            long peak = 0;
+            for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+                if (pool.getType() == MemoryType.HEAP) {
+                    peak += pool.getPeakUsage().getUsed();
+                }
+            }
+            out.printf("heap used %-22s %8.1f MB%n", "peak", megabytes(peak));
+        }
+    }
+
+    // Function that runs an interaction on the EDT, then lets queued updates run and renders, timing all of it
+    private void measure(String name, Runnable interaction, Runnable render)
+            throws InterruptedException, InvocationTargetException {
+        long start = System.nanoTime();
+        SwingUtilities.invokeAndWait(interaction);
+        // Updates the interaction caused are queued on the EDT by now, so this runs after them
+        SwingUtilities.invokeAndWait(render);
+        record(name, System.nanoTime() - start);
+    }
+
+    // Function that computes a value on the EDT and waits for it
+    static <T> T onEdt(Supplier<T> supplier) throws InterruptedException, InvocationTargetException {
+        List<T> result = new ArrayList<>(1);
+        SwingUtilities.invokeAndWait(() -> result.add(supplier.get()));
+        return result.get(0);
+    }
+
+    // Function that lays out a panel and paints it into the offscreen image
+    private void render(JComponent panel) {
+        render(panel, canvas);
+    }
+
+    // Function that lays out a panel at the harness's size and paints it into an image
+    static void render(JComponent panel, BufferedImage canvas) {
+        panel.setSize(WIDTH, HEIGHT);
+        panel.validate();
+        Graphics2D graphics = canvas.createGraphics();
+        try {
+            panel.paint(graphics);
+        } finally {
+            graphics.dispose();
+        }
+    }
+
+    // Function that adds a measured latency
+    private void record(String name, long nanos) {
+        latencies.computeIfAbsent(name, key -> new ArrayList<>()).add(nanos);
+    }
+
+    // Function that notes the heap in use after a full collection
+    private void recordHeap(String phase) {
+        System.gc();
+        heap.put(phase, ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed());
+    }
+
+    // Function that finds the first component of a type matching a condition, depth first, or null
+    static <T extends Component> T find(Container container, Class<? super T> type, Predicate<T> condition) {
+        for (Component child : container.getComponents()) {
+            if (type.isInstance(child)) {
+                @SuppressWarnings("unchecked")
+                T candidate = (T) child;
+                if (condition.test(candidate)) {
+                    return candidate;
+                }
+            }
+            if (child instanceof Container inner) {
+                T found = find(inner, type, condition);
+                if (found != null) {
+                    return found;
+                }
+            }
+        }
+        return null;
+    }
+
+    // Function that returns the value below which the given share of sorted values fall
+    static long percentile(long[] sorted, double share) {
+        int index = (int) Math.ceil(share * sorted.length) - 1;
+        return sorted[Math.max(0, index)];
+    }
+
+    static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static double megabytes(long bytes) {
+        return bytes / (1024.0 * 1024.0);
+    }
+}
@@ -0,0 +1,97 @@
+import javax.swing.*;
+import javax.swing.table.DefaultTableModel;
+import java.awt.BorderLayout;
+import java.awt.GridLayout;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Map;
+
+/**
+ * SummaryPanel is a JPanel that shows the scheduling totals kept by an EventAnalytics:
+ * this week's meeting hours, the number of overdue deadlines, meeting hours per location
+ * and open versus completed deadlines per month. The totals are maintained as events
+ * change, so refreshing the panel never walks the events.
+ */
+public class SummaryPanel extends JPanel implements EventManager.EventListener {
+    private final EventAnalytics analytics;             // Reference to the totals being shown
+    private final JLabel weekLabel;                     // Label showing this week's meeting hours
+    private final JLabel overdueLabel;                  // Label showing the number of overdue deadlines
+    private final DefaultTableModel locationModel;      // Rows of meeting hours per location
+    private final DefaultTableModel monthModel;         // Rows of deadline counts per month
+
+    // Constructs a SummaryPanel showing the totals of an EventAnalytics attached to the given EventManager
+    public SummaryPanel(EventManager eventManager, EventAnalytics analytics) {
+        this(CalendarSet.of(eventManager), analytics);
+    }
+
+    // Constructs a SummaryPanel showing the totals of an EventAnalytics attached to all the calendars
+    public SummaryPanel(CalendarSet calendars, EventAnalytics analytics) {
+        this.analytics = analytics;
+
+        // Set the layout manager for this panel
+        setLayout(new BorderLayout());
+
+        // Headline numbers at the top
+        JPanel headlinePanel = new JPanel();
+        weekLabel = new JLabel();
+        overdueLabel = new JLabel();
+        headlinePanel.add(weekLabel);
+        headlinePanel.add(overdueLabel);
+        add(headlinePanel, BorderLayout.NORTH);
+
+        // Tables of meeting hours per location and deadlines per month side by side
+        locationModel = readOnlyModel("Location", "Meeting Hours");
+        monthModel = readOnlyModel("Month", "Open Deadlines", "Completed Deadlines");
+        JPanel tablePanel = new JPanel(new GridLayout(1, 2));
+        tablePanel.add(new JScrollPane(new JTable(locationModel)));
+        tablePanel.add(new JScrollPane(new JTable(monthModel)));
+        add(tablePanel, BorderLayout.CENTER);
+
+        // Subscribe to every change in every calendar, delivered on the EDT
+        calendars.subscribe(this, EventInterest.ALL, SwingUtilities::invokeLater);
+
+        // Initial population of the summary
+        refreshDisplay();
+    }
+
+    // Method that reloads the numbers and tables from the analytics
+    public void refreshDisplay() {
+        weekLabel.setText("Meetings this week: " + hours(analytics.getMeetingTime(LocalDate.now())) + " h");
+        overdueLabel.setText("Overdue deadlines: " + analytics.getOverdueCount());
+
+        locationModel.setRowCount(0);
+        for (Map.Entry<String, Duration> entry : analytics.getMeetingTimeByLocation().entrySet()) {
+            locationModel.addRow(new Object[] {entry.getKey(), hours(entry.getValue())});
+        }
+
+        monthModel.setRowCount(0);
+        for (Map.Entry<YearMonth, EventAnalytics.DeadlineCounts> entry : analytics.getDeadlineCountsByMonth().entrySet()) {
+            monthModel.addRow(new Object[] {entry.getKey(), entry.getValue().open(), entry.getValue().completed()});
+        }
+    }
+
+    /**
+     * Method that is called on the EDT when events are updated.
+     * Implements the EventManager.EventListener interface method.
+     */
+    @Override
+    public void eventsUpdated() {
+        refreshDisplay();
+    }
+
+    // Function that formats a duration as hours with one decimal
+    private static String hours(Duration duration) {
+        return String.format("%.1f", duration.toMinutes() / 60.0);
+    }
+
+    // Function that creates a table model whose cells cannot be edited
+    private static DefaultTableModel readOnlyModel(String... columns) {
+        return new DefaultTableModel(columns, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+    }
+}
@@ -0,0 +1,157 @@
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * SyncChannel frames sync messages over a non-blocking SocketChannel. Every message is
+ * a 4-byte length followed by a type byte and its payload:
+ *
+ *   HELLO   client ID (UTF), last version seen (long)
+ *   DELTAS  count (int), then that many SyncDelta records
+ *
+ * A SyncChannel is only ever used by the selector thread that owns it.
+ */
+final class SyncChannel {
+    static final byte HELLO = 1;                   // Message type of a client greeting
+    static final byte DELTAS = 2;                  // Message type of a batch of deltas
+    static final int MAX_BATCH = 1000;             // Maximum number of deltas sent in one message
+    static final int MAX_FRAME = 16 * 1024 * 1024; // Maximum length of a message, far above a full batch
+
+    private static final int INITIAL_BUFFER = 64 * 1024;  // Initial size of the read buffer
+
+    private final SocketChannel channel;           // Underlying non-blocking socket
+    private final Deque<ByteBuffer> writeQueue;    // Frames waiting to be written
+    private ByteBuffer readBuffer;                 // Bytes read but not yet framed
+    private SelectionKey key;                      // Registration of the socket with the selector
+    String clientId;                               // ID of the client on the other end, once known
+
+    SyncChannel(SocketChannel channel) {
+        this.channel = channel;
+        this.writeQueue = new ArrayDeque<>();
+        this.readBuffer = ByteBuffer.allocate(INITIAL_BUFFER);
+    }
+
+    // Method that remembers the selector registration so write interest can be toggled
+    void setKey(SelectionKey key) {
+        this.key = key;
+    }
+
+    /**
+     * Method that reads whatever is available and returns the complete messages, throwing at end
+     * of stream or when a length prefix is out of range, so a broken peer is dropped.
+     */
+    List<DataInputStream> read() throws IOException {
+        if (channel.read(readBuffer) < 0) {
+            throw new EOFException("Sync connection closed");
+        }
+        readBuffer.flip();
+        List<DataInputStream> messages = new ArrayList<>();
+        while (readBuffer.remaining() >= Integer.BYTES) {
+            int length = readBuffer.getInt(readBuffer.position());
+            if (length < 1 || length > MAX_FRAME) {
+                throw new IOException("Invalid message length: " + length);
+            }
+            if (readBuffer.remaining() < Integer.BYTES + length) {
+                break;
+            }
+            byte[] message = new byte[length];
+            readBuffer.position(readBuffer.position() + Integer.BYTES);
+            readBuffer.get(message);
+            messages.add(new DataInputStream(new ByteArrayInputStream(message)));
+        }
+        readBuffer.compact();
+
+        // Grow the buffer when a message does not fit in it
+        if (!readBuffer.hasRemaining()) {
+            ByteBuffer grown = ByteBuffer.allocate(readBuffer.capacity() * 2);
+            readBuffer.flip();
+            grown.put(readBuffer);
+            readBuffer = grown;
+        }
+        return messages;
+    }
+
+    // Method that queues a message for writing and writes as much as the socket accepts
+    void send(byte[] frame) throws IOException {
+        writeQueue.addLast(ByteBuffer.wrap(frame));
+        flush();
+    }
+
+    // Method that writes queued messages, asking the selector for write readiness if some are left over
+    void flush() throws IOException {
+        while (!writeQueue.isEmpty()) {
+            ByteBuffer head = writeQueue.peekFirst();
+            channel.write(head);
+            if (head.hasRemaining()) {
+                break;
+            }
+            writeQueue.pollFirst();
+        }
+        if (key != null && key.isValid()) {
+            int ops = writeQueue.isEmpty() ? SelectionKey.OP_READ : SelectionKey.OP_READ | SelectionKey.OP_WRITE;
+            key.interestOps(ops);
+        }
+    }
+
+    // Method that closes the underlying socket
+    void close() {
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            // Nothing more can be done with a socket that fails to close
+        }
+    }
+
+    // Function that builds a HELLO message
+    static byte[] hello(String clientId, long lastVersion) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(0);
+        out.writeByte(HELLO);
+        out.writeUTF(clientId);
+        out.writeLong(lastVersion);
+        return withLength(bytes.toByteArray());
+    }
+
+    // Function that builds a DELTAS message for the given deltas
+    static byte[] deltas(List<SyncDelta> deltas) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(0);
+        out.writeByte(DELTAS);
+        out.writeInt(deltas.size());
+        for (SyncDelta delta : deltas) {
+            delta.write(out);
+        }
+        return withLength(bytes.toByteArray());
+    }
+
+    // Function that reads the deltas of a DELTAS message whose type byte has already been read
+    static List<SyncDelta> readDeltas(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        if (count < 0 || count > MAX_BATCH) {
+            throw new IOException("Invalid number of deltas: " + count);
+        }
+        List<SyncDelta> deltas = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            deltas.add(SyncDelta.read(in));
+        }
+        return deltas;
+    }
+
+    // Function that fills in the length prefix reserved at the start of a message
+    private static byte[] withLength(byte[] frame) {
+        ByteBuffer.wrap(frame).putInt(frame.length - Integer.BYTES);
+        return frame;
+    }
+}
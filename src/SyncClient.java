@@ -0,0 +1,246 @@
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * SyncClient keeps an EventManager in sync with a SyncServer. Local changes are turned into
+ * deltas and sent to the server in batches; deltas from the server are applied to the
+ * EventManager if they win the last-writer-wins comparison against what this client has
+ * already seen for that event.
+ *
+ * The client remembers the last server version it has received, so calling connect() again
+ * after a disconnect only fetches what changed in between. Local changes made while
+ * disconnected are kept and sent after reconnecting.
+ *
+ * The bookkeeping maps are guarded by the EventManager's lock, which is already held when
+ * the manager reports a change.
+ */
+public class SyncClient implements EventManager.ChangeListener, AutoCloseable {
+    private final EventManager eventManager;        // Reference to the EventManager being synced
+    private final String clientId;                  // ID of this client, unique among the desktops
+    private final InetSocketAddress serverAddress;  // Address of the sync server
+    private final Map<String, Event> eventsByKey;   // Local event for each shared event key
+    private final Map<Integer, String> keysById;    // Shared event key for each local event ID
+    private final Map<String, SyncDelta> seen;      // Newest delta seen for each key, for conflict resolution
+    private final ConcurrentLinkedQueue<SyncDelta> outbox;  // Local deltas not yet sent
+    private volatile long lastVersion = 0;          // Newest server version received
+    private long lastTimestamp = 0;                 // Timestamp of the newest delta made or seen
+    private volatile Selector selector;             // Selector of the current connection, if any
+    private volatile Thread thread;                 // Thread running the current connection, if any
+    private boolean applyingRemote = false;         // Set while the connection thread applies server deltas
+
+    // Constructs a SyncClient for the given EventManager; events already in it are shared on the first connect
+    public SyncClient(EventManager eventManager, String clientId, String host, int port) {
+        this.eventManager = eventManager;
+        this.clientId = clientId;
+        this.serverAddress = new InetSocketAddress(host, port);
+        this.eventsByKey = new HashMap<>();
+        this.keysById = new HashMap<>();
+        this.seen = new HashMap<>();
+        this.outbox = new ConcurrentLinkedQueue<>();
+
+        synchronized (eventManager) {
+            for (Event event : eventManager.getEvents()) {
+                share(new EventChange(EventChange.Kind.ADD, event, null, EventChange.State.of(event)));
+            }
+            eventManager.addChangeListener(this);
+        }
+    }
+
+    // Method that connects to the server on a background thread, catching up from the last version seen
+    public synchronized void connect() throws IOException {
+        if (thread != null) {
+            return;
+        }
+        SocketChannel socket = SocketChannel.open();
+        socket.configureBlocking(false);
+        socket.socket().setTcpNoDelay(true);
+        socket.connect(serverAddress);
+        selector = Selector.open();
+        SyncChannel channel = new SyncChannel(socket);
+        channel.setKey(socket.register(selector, SelectionKey.OP_CONNECT, channel));
+        Selector connectionSelector = selector;
+        thread = new Thread(() -> run(connectionSelector, channel), "sync-client-" + clientId);
+        thread.start();
+    }
+
+    // Method that disconnects from the server; local changes keep queuing until the next connect()
+    public void disconnect() {
+        Thread running;
+        synchronized (this) {
+            running = thread;
+        }
+        if (running == null) {
+            return;
+        }
+        running.interrupt();
+        try {
+            running.join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Method that checks whether the client currently has a connection thread running
+    public boolean isConnected() {
+        return thread != null;
+    }
+
+    // Method that retrieves the newest server version this client has received
+    public long getLastVersion() {
+        return lastVersion;
+    }
+
+    @Override
+    public void close() {
+        disconnect();
+    }
+
+    // Called by the EventManager, with its lock held, for every local change
+    @Override
+    public void eventsChanged(List<EventChange> changes) {
+        if (applyingRemote && Thread.currentThread() == thread) {
+            return; // Don't echo the server's own deltas back to it
+        }
+        for (EventChange change : changes) {
+            // Archiving only moves an event to this desktop's disk, the others keep their copy
+            if (change.kind() != EventChange.Kind.ARCHIVE) {
+                share(change);
+            }
+        }
+        Selector current = selector;
+        if (current != null) {
+            current.wakeup();
+        }
+    }
+
+    // Function that turns a local change into a delta and queues it for the server
+    private void share(EventChange change) {
+        Event event = change.event();
+        String key = keysById.computeIfAbsent(event.getId(), id -> clientId + ":" + id);
+        eventsByKey.put(key, event);
+        lastTimestamp = Math.max(System.currentTimeMillis(), lastTimestamp + 1);
+        SyncDelta delta = new SyncDelta(key, change.kind(), lastTimestamp, clientId, 0, change.after());
+        seen.put(key, delta);
+        outbox.add(delta);
+    }
+
+    // Function that runs one connection until it fails or the client disconnects
+    private void run(Selector selector, SyncChannel channel) {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                selector.select();
+                for (SelectionKey key : selector.selectedKeys()) {
+                    if (key.isConnectable()) {
+                        ((SocketChannel) key.channel()).finishConnect();
+                        key.interestOps(SelectionKey.OP_READ);
+                        channel.send(SyncChannel.hello(clientId, lastVersion));
+                        channel.clientId = clientId;
+                    }
+                    if (key.isValid() && key.isReadable()) {
+                        for (DataInputStream message : channel.read()) {
+                            if (message.readByte() == SyncChannel.DELTAS) {
+                                applyRemote(SyncChannel.readDeltas(message));
+                            }
+                        }
+                    }
+                    if (key.isValid() && key.isWritable()) {
+                        channel.flush();
+                    }
+                }
+                selector.selectedKeys().clear();
+
+                // Send everything queued since the last round as batches, once the greeting has gone out
+                if (channel.clientId != null) {
+                    sendOutbox(channel);
+                }
+            }
+        } catch (IOException ex) {
+            System.err.println("Sync client " + clientId + " disconnected: " + ex.getMessage());
+        } finally {
+            channel.close();
+            try {
+                selector.close();
+            } catch (IOException ignored) {
+                // The connection is being torn down anyway
+            }
+            synchronized (this) {
+                this.selector = null;
+                thread = null;
+            }
+        }
+    }
+
+    // Function that sends the queued local deltas in batches
+    private void sendOutbox(SyncChannel channel) throws IOException {
+        List<SyncDelta> batch = new ArrayList<>();
+        SyncDelta delta;
+        while ((delta = outbox.poll()) != null) {
+            batch.add(delta);
+            if (batch.size() == SyncChannel.MAX_BATCH) {
+                channel.send(SyncChannel.deltas(batch));
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            channel.send(SyncChannel.deltas(batch));
+        }
+    }
+
+    // Function that applies the deltas received from the server that win against what this client has seen
+    private void applyRemote(List<SyncDelta> deltas) {
+        synchronized (eventManager) {
+            applyingRemote = true;
+            try {
+                for (SyncDelta delta : deltas) {
+                    lastVersion = Math.max(lastVersion, delta.version());
+                    lastTimestamp = Math.max(lastTimestamp, delta.timestamp());
+                    if (!delta.isNewerThan(seen.get(delta.key()))) {
+                        continue; // Our own delta coming back, or one that already lost
+                    }
+                    seen.put(delta.key(), delta);
+                    applyToManager(delta);
+                }
+            } finally {
+                applyingRemote = false;
+            }
+        }
+    }
+
+    /**
+     * Function that makes the EventManager match a winning delta. Remote changes are applied
+     * without recording them for undo, so a local undo never reverts another desktop's edit
+     * and a remote change never clears the local redo history.
+     */
+    private void applyToManager(SyncDelta delta) {
+        Event event = eventsByKey.get(delta.key());
+        boolean present = event != null && eventManager.findById(event.getId()) == event;
+
+        if (delta.kind() == EventChange.Kind.REMOVE) {
+            if (present) {
+                eventManager.unloadEvent(event);
+            }
+            return;
+        }
+        if (present) {
+            eventManager.loadState(event, delta.state());
+            return;
+        }
+        if (event == null) {
+            event = delta.state().toEvent();
+        } else {
+            delta.state().applyTo(event);
+        }
+        eventManager.loadEvents(List.of(event));
+        eventsByKey.put(delta.key(), event);
+        keysById.put(event.getId(), delta.key());
+    }
+}
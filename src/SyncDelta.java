@@ -0,0 +1,60 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * SyncDelta is one change to a shared calendar as it travels between sync clients and the
+ * sync server. Events are identified by a key that is the same on every desktop, made of the
+ * ID of the client that created the event and the event's ID there.
+ *
+ * Conflicts are resolved last-writer-wins: of two deltas for the same key, the one with the
+ * later timestamp wins, with the origin client ID breaking ties. The server assigns each delta
+ * it accepts a version number, which clients use to catch up after reconnecting.
+ */
+public record SyncDelta(String key, EventChange.Kind kind, long timestamp, String origin, long version,
+                        EventChange.State state) {
+
+    // Method that checks whether this delta wins over another one for the same key
+    public boolean isNewerThan(SyncDelta other) {
+        if (other == null) {
+            return true;
+        }
+        if (timestamp != other.timestamp) {
+            return timestamp > other.timestamp;
+        }
+        return origin.compareTo(other.origin) > 0;
+    }
+
+    // Method that returns a copy of this delta with the version assigned by the server
+    public SyncDelta withVersion(long newVersion) {
+        return new SyncDelta(key, kind, timestamp, origin, newVersion, state);
+    }
+
+    // Method that writes this delta in the binary sync format
+    public void write(DataOutput out) throws IOException {
+        out.writeUTF(key);
+        out.writeByte(kind.ordinal());
+        out.writeLong(timestamp);
+        out.writeUTF(origin);
+        out.writeLong(version);
+        out.writeBoolean(state != null);
+        if (state != null) {
+            state.write(out);
+        }
+    }
+
+    // Method that reads a delta written by write()
+    public static SyncDelta read(DataInput in) throws IOException {
+        String key = in.readUTF();
+        int ordinal = in.readByte();
+        if (ordinal < 0 || ordinal >= EventChange.Kind.values().length) {
+            throw new IOException("Unknown change kind: " + ordinal);
+        }
+        EventChange.Kind kind = EventChange.Kind.values()[ordinal];
+        long timestamp = in.readLong();
+        String origin = in.readUTF();
+        long version = in.readLong();
+        EventChange.State state = in.readBoolean() ? EventChange.State.read(in) : null;
+        return new SyncDelta(key, kind, timestamp, origin, version, state);
+    }
+}
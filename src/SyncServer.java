@@ -0,0 +1,211 @@
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * SyncServer is the process that desktops sharing a calendar connect to. It runs a single
+ * non-blocking selector thread, keeps the winning delta for every event key, and forwards
+ * each delta it accepts to all connected clients in batches.
+ *
+ * Every accepted delta is given the next version number. A client that (re)connects says
+ * which version it has seen last and receives only the keys that changed after it.
+ */
+public class SyncServer implements AutoCloseable {
+    private final ServerSocketChannel serverChannel;  // Socket accepting client connections
+    private final Selector selector;                  // Selector multiplexing all sockets
+    private final Map<String, SyncDelta> latest;      // Winning delta for each event key
+    private final TreeMap<Long, SyncDelta> byVersion; // The same deltas ordered by version, for catch-up
+    private final List<SyncChannel> clients;          // Clients that have said HELLO
+    private final List<SyncDelta> outgoing;           // Deltas accepted during this round, to forward
+    private final Thread thread;                      // Selector thread
+    private volatile long version = 0;                // Version of the most recently accepted delta
+    private volatile boolean running = true;          // Cleared to stop the selector thread
+
+    // Constructs a SyncServer listening on the given port (0 picks a free port)
+    public SyncServer(int port) throws IOException {
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(port));
+        serverChannel.configureBlocking(false);
+        selector = Selector.open();
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        latest = new HashMap<>();
+        byVersion = new TreeMap<>();
+        clients = new ArrayList<>();
+        outgoing = new ArrayList<>();
+        thread = new Thread(this::run, "sync-server");
+    }
+
+    // Method that starts serving clients
+    public void start() {
+        thread.start();
+    }
+
+    // Method that retrieves the port the server is listening on
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    // Method that retrieves the version of the most recently accepted delta
+    public long getVersion() {
+        return version;
+    }
+
+    // Method that stops the server and disconnects all clients
+    @Override
+    public void close() throws IOException {
+        running = false;
+        selector.wakeup();
+        try {
+            thread.join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Function that runs the selector loop until the server is closed
+    private void run() {
+        try {
+            while (running) {
+                selector.select();
+                for (SelectionKey key : selector.selectedKeys()) {
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept();
+                        continue;
+                    }
+                    SyncChannel client = (SyncChannel) key.attachment();
+                    try {
+                        if (key.isReadable()) {
+                            for (DataInputStream message : client.read()) {
+                                handle(client, message);
+                            }
+                        }
+                        if (key.isValid() && key.isWritable()) {
+                            client.flush();
+                        }
+                    } catch (IOException | RuntimeException ex) {
+                        // A client sending something that cannot be read is dropped, the others carry on
+                        disconnect(client, key);
+                    }
+                }
+                selector.selectedKeys().clear();
+                forwardOutgoing();
+            }
+        } catch (IOException ex) {
+            System.err.println("Sync server stopped: " + ex.getMessage());
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                if (key.attachment() instanceof SyncChannel client) {
+                    client.close();
+                }
+            }
+            try {
+                selector.close();
+                serverChannel.close();
+            } catch (IOException ignored) {
+                // The server is shutting down anyway
+            }
+        }
+    }
+
+    // Function that accepts a new client connection
+    private void accept() throws IOException {
+        SocketChannel socket = serverChannel.accept();
+        if (socket == null) {
+            return;
+        }
+        socket.configureBlocking(false);
+        socket.socket().setTcpNoDelay(true);
+        SyncChannel client = new SyncChannel(socket);
+        client.setKey(socket.register(selector, SelectionKey.OP_READ, client));
+    }
+
+    // Function that handles one message from a client
+    private void handle(SyncChannel client, DataInputStream message) throws IOException {
+        byte type = message.readByte();
+        if (type == SyncChannel.HELLO) {
+            client.clientId = message.readUTF();
+            long lastVersion = message.readLong();
+            clients.add(client);
+
+            // Catch the client up on every key that changed after the version it has seen
+            List<SyncDelta> missed = new ArrayList<>(byVersion.tailMap(lastVersion, false).values());
+            for (int i = 0; i < missed.size(); i += SyncChannel.MAX_BATCH) {
+                client.send(SyncChannel.deltas(missed.subList(i, Math.min(missed.size(), i + SyncChannel.MAX_BATCH))));
+            }
+        } else if (type == SyncChannel.DELTAS) {
+            List<SyncDelta> rejected = new ArrayList<>();
+            for (SyncDelta delta : SyncChannel.readDeltas(message)) {
+                SyncDelta current = latest.get(delta.key());
+                if (delta.isNewerThan(current)) {
+                    accept(delta);
+                } else {
+                    // The client lost the conflict, send it the winner so it converges
+                    rejected.add(current);
+                }
+            }
+            if (!rejected.isEmpty()) {
+                client.send(SyncChannel.deltas(rejected));
+            }
+        } else {
+            throw new IOException("Unknown message type: " + type);
+        }
+    }
+
+    // Function that records a winning delta under the next version and queues it for forwarding
+    private void accept(SyncDelta delta) {
+        SyncDelta accepted = delta.withVersion(version + 1);
+        version = accepted.version();
+        SyncDelta replaced = latest.put(accepted.key(), accepted);
+        if (replaced != null) {
+            byVersion.remove(replaced.version());
+        }
+        byVersion.put(accepted.version(), accepted);
+        outgoing.add(accepted);
+    }
+
+    // Function that forwards the deltas accepted during this round to every client in one batch
+    private void forwardOutgoing() {
+        if (outgoing.isEmpty()) {
+            return;
+        }
+        for (SyncChannel client : new ArrayList<>(clients)) {
+            try {
+                for (int i = 0; i < outgoing.size(); i += SyncChannel.MAX_BATCH) {
+                    client.send(SyncChannel.deltas(outgoing.subList(i, Math.min(outgoing.size(), i + SyncChannel.MAX_BATCH))));
+                }
+            } catch (IOException ex) {
+                disconnect(client, null);
+            }
+        }
+        outgoing.clear();
+    }
+
+    // Function that drops a client whose connection failed or closed
+    private void disconnect(SyncChannel client, SelectionKey key) {
+        clients.remove(client);
+        if (key != null) {
+            key.cancel();
+        }
+        client.close();
+    }
+
+    // Entry point for a standalone sync server: java SyncServer [port], default 9090
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 9090;
+        SyncServer server = new SyncServer(port);
+        server.start();
+        System.out.println("Sync server listening on port " + server.getPort());
+    }
+}